@@ -0,0 +1,3 @@
+#!/bin/bash
+# Permite conexiones de replicación desde la red de compose
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,68 @@
+package org.manudev.auth_catalog_kata.codec;
+
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de Page&lt;CourseResponseDTO&gt;: JSON (Jackson) frente a CBOR con el sobre recortado.
+ * Los bytes por página de cada formato se imprimen en el setup; con -prof gc se ve además la asignación por operación.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoursePageBenchmark {
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private Page<CourseResponseDTO> page;
+    private JsonMapper jsonMapper;
+    private CoursePageCbor cbor;
+
+    @Setup
+    public void setUp() {
+        List<CourseResponseDTO> courses = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            courses.add(new CourseResponseDTO(
+                    i,
+                    "Course " + i,
+                    "Description of course " + i + " with some realistic length for the catalog",
+                    i % 2 == 0 ? "Backend" : "Frontend",
+                    "40",
+                    "https://cdn.kata.dev/badges/" + i + ".png",
+                    LocalDateTime.of(2025, 1, 1, 10, 0, 15),
+                    LocalDateTime.of(2025, 6, 1, 10, 0, 15),
+                    i % 5));
+        }
+        page = new PageImpl<>(courses, PageRequest.of(0, pageSize), 10_000);
+        jsonMapper = JsonMapper.builder().build();
+        cbor = new CoursePageCbor(Runtime.getRuntime().availableProcessors(), DataSize.ofMegabytes(1));
+
+        int json = jsonMapper.writeValueAsBytes(page).length;
+        int binary = cbor.encode(page).length;
+        System.out.printf("%n%d courses: json=%d B, cbor=%d B (%.0f%%)%n", pageSize, json, binary, 100.0 * binary / json);
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cbor() {
+        return cbor.encode(page);
+    }
+}
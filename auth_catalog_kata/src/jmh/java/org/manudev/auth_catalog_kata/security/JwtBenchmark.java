@@ -0,0 +1,106 @@
+package org.manudev.auth_catalog_kata.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import jakarta.servlet.FilterChain;
+import org.manudev.auth_catalog_kata.cache.AuthorityRegistry;
+import org.manudev.auth_catalog_kata.entities.Role;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.manudev.auth_catalog_kata.repository.IRoleRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación y verificación de JWT, y resolución de roles en JwtFilter con y sin cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "kYQWfODnuPH5AU35PAkLKp7565bhokLQCKe045NPexwHUJLHhOTbVWobIOvD3bb8";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private JwtFilter jwtFilter;
+    private Map<String, Object> claims;
+    private String token;
+    private String authorizationHeader;
+    // Compartido: crear un MockServletContext por petición domina el coste medido
+    private MockServletContext servletContext;
+    private MockHttpServletRequest sharedRequest;
+    private MockHttpServletResponse sharedResponse;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3600000);
+        IRoleRepository roleRepository = Mockito.mock(IRoleRepository.class);
+        Mockito.when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).name("user").build(),
+                Role.builder().id(2L).name("admin").build()));
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(roleRepository);
+        authorityRegistry.preload();
+        jwtFilter = new JwtFilter(jwtUtil, new JwtTokenCache(10_000), authorityRegistry, new MetricsRegistry());
+        claims = Map.of("id", 1L, "email", "user@kata.dev", "roles", new Object[]{"user", "admin"});
+        token = jwtUtil.generateToken("1", claims);
+        authorizationHeader = "Bearer " + token;
+        servletContext = new MockServletContext();
+        sharedRequest = new MockHttpServletRequest(servletContext, "GET", "/courses");
+        sharedRequest.addHeader("Authorization", authorizationHeader);
+        sharedResponse = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("1", claims);
+    }
+
+    @Benchmark
+    public Jws<Claims> parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    /**
+     * Verificación completa más extracción de roles, el camino de un fallo de cache.
+     */
+    @Benchmark
+    public JwtTokenCache.VerifiedToken filterRoleExtractionUncached() {
+        return jwtFilter.verify(token);
+    }
+
+    /**
+     * Petición completa por JwtFilter con el token ya en cache (incluye crear la petición mock).
+     */
+    @Benchmark
+    public Object filterCached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/courses");
+        request.addHeader("Authorization", authorizationHeader);
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * Igual que filterCached pero reutilizando la petición: con -prof gc, gc.alloc.rate.norm es lo que
+     * asigna JwtFilter por petición autenticada (digest del token, authorities, Authentication).
+     */
+    @Benchmark
+    public Object filterCachedSharedRequest() throws Exception {
+        jwtFilter.doFilter(sharedRequest, sharedResponse, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,70 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.entities.Course;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo Course -> CourseResponseDTO, mapeo de páginas y serialización JSON de Page&lt;CourseResponseDTO&gt;.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Course course;
+    private Page<Course> coursePage;
+    private Page<CourseResponseDTO> dtoPage;
+    private JsonMapper jsonMapper;
+
+    @Setup
+    public void setUp() {
+        List<Course> courses = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            courses.add(Course.builder()
+                    .id(i)
+                    .title("Course " + i)
+                    .description("Description of course " + i + " with some realistic length for the catalog")
+                    .module(i % 2 == 0 ? "Backend" : "Frontend")
+                    .durationHours("40")
+                    .badgeImage("https://cdn.kata.dev/badges/" + i + ".png")
+                    .createdAt(LocalDateTime.of(2025, 1, 1, 10, 0))
+                    .updatedAt(LocalDateTime.of(2025, 6, 1, 10, 0))
+                    .build());
+        }
+        course = courses.get(0);
+        coursePage = new PageImpl<>(courses, PageRequest.of(0, pageSize), 10_000);
+        dtoPage = coursePage.map(CoursesServiceImpl::toDto);
+        jsonMapper = JsonMapper.builder().build();
+    }
+
+    @Benchmark
+    public CourseResponseDTO toDto() {
+        return CoursesServiceImpl.toDto(course);
+    }
+
+    @Benchmark
+    public Page<CourseResponseDTO> mapPage() {
+        return coursePage.map(CoursesServiceImpl::toDto);
+    }
+
+    @Benchmark
+    public byte[] serializePageJson() {
+        return jsonMapper.writeValueAsBytes(dtoPage);
+    }
+}
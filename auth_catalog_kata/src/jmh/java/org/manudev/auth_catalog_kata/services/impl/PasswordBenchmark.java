@@ -0,0 +1,40 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de BCrypt en el login (matches) y en el registro (encode) según el factor de coste.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+
+    @Param({"10"})
+    public int cost;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(cost);
+        hash = encoder.encode("s3cret-password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("s3cret-password", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("s3cret-password");
+    }
+}
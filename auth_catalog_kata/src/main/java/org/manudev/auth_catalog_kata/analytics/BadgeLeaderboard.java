@@ -0,0 +1,217 @@
+package org.manudev.auth_catalog_kata.analytics;
+
+import jakarta.annotation.PreDestroy;
+import org.manudev.auth_catalog_kata.cache.PeriodicTask;
+import org.manudev.auth_catalog_kata.dto.AwardedBadgeDTO;
+import org.manudev.auth_catalog_kata.dto.LeaderboardDTO;
+import org.manudev.auth_catalog_kata.dto.LeaderboardEntryDTO;
+import org.manudev.auth_catalog_kata.repository.BadgeBatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clasificación de usuarios por insignias obtenidas, global y por módulo.
+ *
+ * Cada clasificación guarda el total de cada usuario en un mapa de claves primitivas y mantiene
+ * las {@code size} primeras posiciones al día con cada insignia que escribe BadgeAwardPipeline,
+ * también las que llegan mientras se reconstruye.
+ * Las lecturas devuelven una lista inmutable ya publicada, sin locks. Al arrancar y cada
+ * {@code rebuildInterval} se reconstruye todo desde la tabla badges, lo que recoge las insignias
+ * de otras instancias y de la API de Nest.
+ */
+@Component
+public class BadgeLeaderboard {
+
+    public BadgeLeaderboard(BadgeBatchRepository badgeBatchRepository,
+                            @Value("${app.leaderboard.size:100}") int size,
+                            @Value("${app.leaderboard.rebuild-interval:30m}") Duration rebuildInterval) {
+        this.badgeBatchRepository = badgeBatchRepository;
+        this.size = size;
+        // Si falla se reintenta en la siguiente ejecución; mientras tanto siguen valiendo las clasificaciones incrementales
+        this.rebuilder = new PeriodicTask("leaderboard-rebuild", rebuildInterval, this::rebuild);
+        this.state = new State(new Board(size), new ConcurrentHashMap<>(), null);
+    }
+
+    private final BadgeBatchRepository badgeBatchRepository;
+    private final int size;
+    // Se sustituye entero en cada reconstrucción; las escrituras incrementales sincronizan sobre this
+    private volatile State state;
+    // Insignias llegadas mientras corre una reconstrucción (null si no hay ninguna); protegido por this
+    private List<AwardedBadgeDTO> pendingAwards;
+    private final PeriodicTask rebuilder;
+
+    /**
+     * Las primeras {@code limit} posiciones (como mucho {@code size}); {@code module} null para la global.
+     * Un módulo sin insignias devuelve una lista vacía.
+     */
+    public LeaderboardDTO top(String module, int limit) {
+        State current = state;
+        Board board = module == null ? current.global : current.modules.get(module);
+        List<LeaderboardEntryDTO> entries = board == null ? List.of() : board.snapshot;
+        return new LeaderboardDTO(module, entries.subList(0, Math.min(limit, entries.size())), current.rebuiltAt);
+    }
+
+    /**
+     * Solo las insignias insertadas de verdad; un evento reentregado que ON CONFLICT descartó no suma.
+     */
+    public synchronized void badgesAwarded(List<AwardedBadgeDTO> awarded) {
+        if (awarded.isEmpty()) return;
+        if (pendingAwards != null) {
+            pendingAwards.addAll(awarded);
+        }
+        apply(state, awarded);
+    }
+
+    /**
+     * Recuenta todas las insignias y sustituye las clasificaciones.
+     * Las insignias que llegan mientras corre la consulta se guardan aparte y se aplican sobre el recuento
+     * antes de publicarlo: la consulta puede no verlas y se perderían hasta la siguiente reconstrucción.
+     * Una insignia confirmada justo antes de que la consulta empiece pero notificada ya con la reconstrucción
+     * en marcha se cuenta dos veces hasta la siguiente; a cambio nunca se pierde ninguna.
+     */
+    public void rebuild() {
+        synchronized (this) {
+            pendingAwards = new ArrayList<>();
+        }
+        try {
+            Board global = new Board(size);
+            Map<String, Board> modules = new ConcurrentHashMap<>();
+            badgeBatchRepository.streamCountsByUserAndModule((userId, module, badges) -> {
+                global.counts.addTo(userId, badges);
+                if (module != null) {
+                    modules.computeIfAbsent(module, m -> new Board(size)).counts.addTo(userId, badges);
+                }
+            });
+            global.rankAll();
+            modules.values().forEach(Board::rankAll);
+            synchronized (this) {
+                State rebuilt = new State(global, modules, LocalDateTime.now());
+                apply(rebuilt, pendingAwards);
+                state = rebuilt;
+            }
+        } finally {
+            synchronized (this) {
+                pendingAwards = null;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.stop();
+    }
+
+    // Con el lock del leaderboard tomado
+    private void apply(State target, List<AwardedBadgeDTO> awarded) {
+        List<Board> touched = new ArrayList<>();
+        for (AwardedBadgeDTO badge : awarded) {
+            add(target.global, badge.userId(), touched);
+            if (badge.module() != null) {
+                add(target.modules.computeIfAbsent(badge.module(), m -> new Board(size)), badge.userId(), touched);
+            }
+        }
+        touched.forEach(Board::publish);
+    }
+
+    private static void add(Board board, long userId, List<Board> touched) {
+        board.offer(userId, board.counts.addTo(userId, 1));
+        if (!touched.contains(board)) {
+            touched.add(board);
+        }
+    }
+
+    private record State(Board global, Map<String, Board> modules, LocalDateTime rebuiltAt) {
+    }
+
+    /**
+     * Totales de una clasificación y sus primeras posiciones, ordenadas por insignias y, a igualdad, por id de usuario.
+     * Solo la modifica quien tiene el lock del leaderboard (o el hilo que la construye antes de publicarla).
+     */
+    private static final class Board {
+
+        Board(int size) {
+            this.ids = new long[size];
+            this.badges = new int[size];
+        }
+
+        final LongIntHashMap counts = new LongIntHashMap(16);
+        private final long[] ids;
+        private final int[] badges;
+        private int ranked;
+        volatile List<LeaderboardEntryDTO> snapshot = List.of();
+
+        /**
+         * Coloca a un usuario cuyo total acaba de crecer. Los totales solo suben, así que basta con desplazarlo hacia arriba.
+         */
+        void offer(long userId, int total) {
+            int position;
+            if (ranked < ids.length) {
+                position = indexOf(userId);
+                if (position < 0) position = ranked++;
+            } else if (ranksAbove(userId, total, ranked - 1) || ids[ranked - 1] == userId) {
+                // Quien ya está en la tabla por encima del último siempre lo supera: no hace falta buscarlo si no lo supera
+                position = indexOf(userId);
+                if (position < 0) position = ranked - 1;
+            } else {
+                return;
+            }
+            place(userId, total, position);
+        }
+
+        // Tras una reconstrucción cada usuario aparece una sola vez
+        void rankAll() {
+            ranked = 0;
+            counts.forEach((userId, total) -> {
+                if (ranked < ids.length) {
+                    place(userId, total, ranked++);
+                } else if (ranksAbove(userId, total, ranked - 1)) {
+                    place(userId, total, ranked - 1);
+                }
+            });
+            publish();
+        }
+
+        void publish() {
+            List<LeaderboardEntryDTO> entries = new ArrayList<>(ranked);
+            for (int i = 0; i < ranked; i++) {
+                entries.add(new LeaderboardEntryDTO(i + 1, ids[i], badges[i]));
+            }
+            snapshot = List.copyOf(entries);
+        }
+
+        private void place(long userId, int total, int position) {
+            while (position > 0 && ranksAbove(userId, total, position - 1)) {
+                ids[position] = ids[position - 1];
+                badges[position] = badges[position - 1];
+                position--;
+            }
+            ids[position] = userId;
+            badges[position] = total;
+        }
+
+        private boolean ranksAbove(long userId, int total, int position) {
+            return total > badges[position] || (total == badges[position] && userId < ids[position]);
+        }
+
+        private int indexOf(long userId) {
+            for (int i = 0; i < ranked; i++) {
+                if (ids[i] == userId) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.manudev.auth_catalog_kata.analytics;
+
+import jakarta.annotation.PreDestroy;
+import org.manudev.auth_catalog_kata.cache.AfterCommit;
+import org.manudev.auth_catalog_kata.cache.PeriodicTask;
+import org.manudev.auth_catalog_kata.dto.CompletionBucketView;
+import org.manudev.auth_catalog_kata.dto.CourseAnalyticsDTO;
+import org.manudev.auth_catalog_kata.dto.CourseAnalyticsReportDTO;
+import org.manudev.auth_catalog_kata.dto.CourseRollupDTO;
+import org.manudev.auth_catalog_kata.dto.DailyLearnersDTO;
+import org.manudev.auth_catalog_kata.dto.DailyLearnersView;
+import org.manudev.auth_catalog_kata.dto.ModuleAnalyticsDTO;
+import org.manudev.auth_catalog_kata.repository.IUserProgressRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Analítica de finalización de cursos: tasa de completado por curso y módulo, percentiles del tiempo
+ * hasta completar y usuarios activos por día.
+ *
+ * Los contadores viven en memoria (LongAdder y arrays de buckets) y se actualizan con cada cambio de progreso
+ * de esta instancia tras el commit. Cada {@code compactionInterval} se reconstruyen desde user_progress con
+ * unos pocos GROUP BY, lo que recoge los cambios de otras instancias y de la API de Nest y corrige cualquier
+ * desviación. GET /analytics/courses responde con una instantánea ya construida, sin consultar la BD.
+ */
+@Component
+public class CourseAnalytics {
+
+    // Bucket 0: menos de un minuto; bucket n: [2^(n-1), 2^n) minutos. El último acumula el resto (~16 años)
+    static final int BUCKETS = 24;
+
+    public CourseAnalytics(IUserProgressRepository userProgressRepository,
+                           @Value("${app.analytics.compaction-interval:15m}") Duration compactionInterval,
+                           @Value("${app.analytics.daily-retention-days:30}") int retentionDays,
+                           @Value("${app.analytics.publish-interval:1s}") Duration publishInterval) {
+        this.userProgressRepository = userProgressRepository;
+        // Si falla se reintenta en la siguiente ejecución; mientras tanto se sirven los contadores incrementales
+        this.compactor = new PeriodicTask("analytics-compaction", compactionInterval, this::compact);
+        this.retentionDays = retentionDays;
+        this.publishIntervalNanos = publishInterval.toNanos();
+    }
+
+    private final IUserProgressRepository userProgressRepository;
+    private final int retentionDays;
+    private final long publishIntervalNanos;
+
+    // Se sustituyen enteros en cada compactación; los contadores de cada curso se actualizan sin locks
+    private volatile Map<Long, CourseCounters> courses = new ConcurrentHashMap<>();
+    private volatile Map<LocalDate, Long> closedDays = Map.of();
+    private volatile LocalDate today = LocalDate.now();
+    private volatile Set<Long> todayLearners = ConcurrentHashMap.newKeySet();
+    private volatile LocalDateTime compactedAt;
+
+    private volatile CourseAnalyticsReportDTO published;
+    private volatile long publishedAtNanos;
+    private volatile boolean dirty = true;
+    private final PeriodicTask compactor;
+
+    public CourseAnalyticsReportDTO report() {
+        CourseAnalyticsReportDTO current = published;
+        if (current == null || (dirty && System.nanoTime() - publishedAtNanos > publishIntervalNanos)) {
+            return publish();
+        }
+        return current;
+    }
+
+    /**
+     * {@code created}: la llamada creó la fila de progreso (un curso empezado de nuevo no cuenta dos veces).
+     */
+    public void courseStarted(Long userId, Long courseId, boolean created, LocalDateTime at) {
+        AfterCommit.run(() -> {
+            if (created) {
+                counters(courseId).started.increment();
+            }
+            learnerActive(userId, at.toLocalDate());
+            dirty = true;
+        });
+    }
+
+    /**
+     * Solo para la llamada que completó el curso; {@code created} si además creó la fila.
+     */
+    public void courseCompleted(Long userId, Long courseId, boolean created,
+                                LocalDateTime startedAt, LocalDateTime completedAt) {
+        AfterCommit.run(() -> {
+            CourseCounters counters = counters(courseId);
+            if (created) {
+                counters.started.increment();
+            }
+            counters.completed.increment();
+            if (startedAt != null) {
+                counters.durations.incrementAndGet(bucket(ChronoUnit.SECONDS.between(startedAt, completedAt)));
+            }
+            learnerActive(userId, completedAt.toLocalDate());
+            dirty = true;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        compactor.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.stop();
+    }
+
+    /**
+     * Reconstruye todos los contadores desde user_progress y descarta los días fuera de la retención.
+     * Los cambios confirmados mientras corren las consultas pueden perderse o contarse dos veces
+     * hasta la siguiente compactación.
+     */
+    public void compact() {
+        LocalDate currentDay = LocalDate.now();
+        LocalDateTime since = currentDay.minusDays(retentionDays).atStartOfDay();
+
+        Map<Long, CourseCounters> rebuilt = new ConcurrentHashMap<>();
+        for (CourseRollupDTO row : userProgressRepository.rollupByCourse()) {
+            CourseCounters counters = new CourseCounters(row.module());
+            counters.started.add(row.started());
+            counters.completed.add(row.completed());
+            rebuilt.put(row.courseId(), counters);
+        }
+        for (CompletionBucketView row : userProgressRepository.completionBuckets(BUCKETS - 1)) {
+            CourseCounters counters = rebuilt.get(row.getCourseId());
+            if (counters != null) {
+                counters.durations.addAndGet(row.getBucket(), row.getCompletions());
+            }
+        }
+        TreeMap<LocalDate, Long> days = new TreeMap<>();
+        for (DailyLearnersView row : userProgressRepository.dailyLearners(since)) {
+            if (row.getDay().isBefore(currentDay)) {
+                days.put(row.getDay(), row.getLearners());
+            }
+        }
+        Set<Long> learners = ConcurrentHashMap.newKeySet();
+        learners.addAll(userProgressRepository.learnerIdsSince(currentDay.atStartOfDay()));
+
+        synchronized (this) {
+            courses = rebuilt;
+            closedDays = Map.copyOf(days);
+            today = currentDay;
+            todayLearners = learners;
+            compactedAt = LocalDateTime.now();
+            dirty = true;
+        }
+    }
+
+    private CourseCounters counters(Long courseId) {
+        Map<Long, CourseCounters> current = courses;
+        CourseCounters counters = current.get(courseId);
+        // Un curso aún sin progreso se registra sin módulo hasta la siguiente compactación
+        return counters != null ? counters : current.computeIfAbsent(courseId, id -> new CourseCounters(null));
+    }
+
+    private void learnerActive(Long userId, LocalDate day) {
+        if (!day.equals(today)) {
+            rollDay(day);
+        }
+        todayLearners.add(userId);
+    }
+
+    // Cambio de día: el conjunto de ayer se compacta a un número y se descartan los días fuera de la retención
+    private synchronized void rollDay(LocalDate day) {
+        if (!day.isAfter(today)) return;
+        TreeMap<LocalDate, Long> days = new TreeMap<>(closedDays);
+        days.put(today, (long) todayLearners.size());
+        days.headMap(day.minusDays(retentionDays)).clear();
+        closedDays = Map.copyOf(days);
+        today = day;
+        todayLearners = ConcurrentHashMap.newKeySet();
+    }
+
+    private synchronized CourseAnalyticsReportDTO publish() {
+        dirty = false;
+        List<CourseAnalyticsDTO> courseRows = new ArrayList<>();
+        Map<String, ModuleTotals> modules = new TreeMap<>();
+        new TreeMap<>(courses).forEach((courseId, counters) -> {
+            long started = counters.started.sum();
+            long completed = counters.completed.sum();
+            long[] durations = counters.snapshotDurations();
+            courseRows.add(new CourseAnalyticsDTO(courseId, counters.module, started, completed,
+                    rate(completed, started), percentile(durations, 0.5), percentile(durations, 0.9)));
+            if (counters.module != null) {
+                modules.computeIfAbsent(counters.module, m -> new ModuleTotals()).add(started, completed, durations);
+            }
+        });
+
+        List<ModuleAnalyticsDTO> moduleRows = new ArrayList<>();
+        modules.forEach((module, totals) -> moduleRows.add(new ModuleAnalyticsDTO(module, totals.started, totals.completed,
+                rate(totals.completed, totals.started), percentile(totals.durations, 0.5), percentile(totals.durations, 0.9))));
+
+        List<DailyLearnersDTO> dailyRows = new ArrayList<>();
+        new TreeMap<>(closedDays).forEach((day, learners) -> dailyRows.add(new DailyLearnersDTO(day, learners)));
+        dailyRows.add(new DailyLearnersDTO(today, todayLearners.size()));
+        dailyRows.sort(Comparator.comparing(DailyLearnersDTO::day));
+
+        published = new CourseAnalyticsReportDTO(List.copyOf(courseRows), List.copyOf(moduleRows),
+                List.copyOf(dailyRows), compactedAt);
+        publishedAtNanos = System.nanoTime();
+        return published;
+    }
+
+    static int bucket(long seconds) {
+        long minutes = Math.max(0, seconds) / 60;
+        if (minutes == 0) return 0;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(minutes));
+    }
+
+    // Límite superior del bucket, en segundos
+    static long upperBoundSeconds(int bucket) {
+        return (1L << bucket) * 60;
+    }
+
+    static Long percentile(long[] durations, double quantile) {
+        long total = 0;
+        for (long count : durations) total += count;
+        if (total == 0) return null;
+        long rank = (long) Math.ceil(quantile * total);
+        long running = 0;
+        for (int i = 0; i < durations.length; i++) {
+            running += durations[i];
+            if (running >= rank) {
+                return upperBoundSeconds(i);
+            }
+        }
+        return upperBoundSeconds(durations.length - 1);
+    }
+
+    private static double rate(long completed, long started) {
+        return started == 0 ? 0 : Math.min(1.0, (double) completed / started);
+    }
+
+    private static final class CourseCounters {
+
+        CourseCounters(String module) {
+            this.module = module;
+        }
+
+        final String module;
+        final LongAdder started = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final AtomicLongArray durations = new AtomicLongArray(BUCKETS);
+
+        long[] snapshotDurations() {
+            long[] copy = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = durations.get(i);
+            }
+            return copy;
+        }
+    }
+
+    private static final class ModuleTotals {
+
+        long started;
+        long completed;
+        final long[] durations = new long[BUCKETS];
+
+        void add(long started, long completed, long[] durations) {
+            this.started += started;
+            this.completed += completed;
+            for (int i = 0; i < BUCKETS; i++) {
+                this.durations[i] += durations[i];
+            }
+        }
+    }
+}
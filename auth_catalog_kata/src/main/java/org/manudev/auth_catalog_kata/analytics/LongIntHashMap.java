@@ -0,0 +1,113 @@
+package org.manudev.auth_catalog_kata.analytics;
+
+/**
+ * Mapa long → int con direccionamiento abierto (sondeo lineal) sobre dos arrays primitivos.
+ * Sin objetos por entrada: un millón de usuarios ocupa unos 24 MB en lugar de los ~80 MB de un HashMap&lt;Long, Integer&gt;.
+ * No es seguro entre hilos; quien lo use serializa las escrituras.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+    // La clave 0 marca un hueco libre; su valor, si existe, va aparte
+    private boolean hasZero;
+    private int zeroValue;
+
+    /**
+     * Suma {@code delta} al valor de {@code key} (0 si no existía) y devuelve el resultado.
+     */
+    int addTo(long key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot] += delta;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > resizeAt) {
+            resize();
+        }
+        return delta;
+    }
+
+    int get(long key) {
+        if (key == EMPTY) {
+            return zeroValue;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Entry consumer) {
+        if (hasZero) {
+            consumer.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+        resizeAt = (int) (keys.length * LOAD_FACTOR);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    // Los ids son secuenciales: sin mezclar, el sondeo lineal formaría racimos largos
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long key, int value);
+    }
+}
@@ -0,0 +1,87 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.manudev.auth_catalog_kata.entities.Role;
+import org.manudev.auth_catalog_kata.repository.IRoleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorities internadas: una SimpleGrantedAuthority por rol y una lista inmutable compartida por cada
+ * combinación de roles, así verificar un token no construye strings ni authorities nuevas.
+ * Se precarga con la tabla roles; un rol desconocido recarga la tabla una vez y queda registrado.
+ * La authority depende solo del nombre del rol, por eso una entrada nunca queda obsoleta.
+ */
+@Component
+public class AuthorityRegistry {
+
+    // Las combinaciones salen de tokens firmados por nosotros; el tope solo protege de un uso inesperado
+    private static final int MAX_COMBINATIONS = 1024;
+
+    public AuthorityRegistry(IRoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    private final IRoleRepository roleRepository;
+    private final Map<String, SimpleGrantedAuthority> byRole = new ConcurrentHashMap<>();
+    private final Map<List<?>, List<SimpleGrantedAuthority>> byCombination = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    /**
+     * Authorities de una lista de roles tal como viene en el claim "roles".
+     * Con una combinación ya vista no asigna memoria: la lista del claim sirve de clave.
+     */
+    public List<SimpleGrantedAuthority> authoritiesFor(List<?> roles) {
+        List<SimpleGrantedAuthority> shared = byCombination.get(roles);
+        if (shared != null) {
+            return shared;
+        }
+        List<String> names = new ArrayList<>(roles.size());
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            String name = String.valueOf(role);
+            names.add(name);
+            authorities.add(authority(name));
+        }
+        shared = List.copyOf(authorities);
+        if (byCombination.size() < MAX_COMBINATIONS) {
+            List<SimpleGrantedAuthority> previous = byCombination.putIfAbsent(List.copyOf(names), shared);
+            return previous != null ? previous : shared;
+        }
+        return shared;
+    }
+
+    private SimpleGrantedAuthority authority(String role) {
+        SimpleGrantedAuthority authority = byRole.get(role);
+        if (authority == null) {
+            reload();
+            authority = byRole.computeIfAbsent(role, AuthorityRegistry::newAuthority);
+        }
+        return authority;
+    }
+
+    /**
+     * Registra los roles de la tabla (los ya conocidos se conservan).
+     */
+    public void reload() {
+        for (Role role : roleRepository.findAll()) {
+            SimpleGrantedAuthority authority = byRole.computeIfAbsent(role.getName(), AuthorityRegistry::newAuthority);
+            byCombination.putIfAbsent(List.of(role.getName()), List.of(authority));
+        }
+    }
+
+    private static SimpleGrantedAuthority newAuthority(String role) {
+        return new SimpleGrantedAuthority("ROLE_" + role.toUpperCase(Locale.ROOT));
+    }
+}
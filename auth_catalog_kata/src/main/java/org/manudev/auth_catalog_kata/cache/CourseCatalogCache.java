@@ -0,0 +1,133 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.manudev.auth_catalog_kata.config.ReadReplicaRoutingDataSource;
+import org.manudev.auth_catalog_kata.dto.CacheStatsDTO;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache en memoria del catálogo de cursos.
+ * Guarda los cursos por id y las páginas por (módulo, página, tamaño).
+ * Las escrituras invalidan solo las entradas afectadas una vez que la transacción hace commit.
+ * Las cargas leen del primario: lo que se cachea se sirve a todos durante expire-after-write,
+ * y un dato viejo de la réplica duraría eso mismo.
+ */
+@Component
+public class CourseCatalogCache {
+
+    public CourseCatalogCache(
+            @Value("${app.courses.cache.by-id.max-size:5000}") long byIdMaxSize,
+            @Value("${app.courses.cache.pages.max-size:1000}") long pagesMaxSize,
+            @Value("${app.courses.cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        this.expireAfterWriteMillis = Math.max(1, expireAfterWrite.toMillis());
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(byIdMaxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    private final Cache<Long, CourseResponseDTO> byId;
+    private final Cache<PageKey, Page<CourseResponseDTO>> pages;
+
+    // Versión del catálogo en esta instancia: cambia con cada escritura confirmada.
+    // El prefijo aleatorio evita que dos arranques (o dos instancias) compartan ETag con datos distintos
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong version = new AtomicLong();
+    private final long expireAfterWriteMillis;
+
+    public CourseResponseDTO getById(Long id, Supplier<CourseResponseDTO> loader) {
+        return byId.get(id, key -> ReadReplicaRoutingDataSource.onPrimary(loader));
+    }
+
+    public CourseResponseDTO peekById(Long id) {
+        return byId.getIfPresent(id);
+    }
+
+    /**
+     * ETag de los listados: una página solo puede cambiar si cambia la versión del catálogo.
+     * Incluye el intervalo de expiración actual porque los cambios hechos fuera de esta instancia
+     * solo se ven cuando caduca la página cacheada; así un ETag nunca vive más que los datos que describe.
+     */
+    public String catalogETag() {
+        long window = System.currentTimeMillis() / expireAfterWriteMillis;
+        return "\"catalog-" + instanceId + "-" + version.get() + "-" + window + "\"";
+    }
+
+    public Page<CourseResponseDTO> getPage(String module, Pageable pageable, Supplier<Page<CourseResponseDTO>> loader) {
+        PageKey key = new PageKey(normalize(module), pageable.getPageNumber(), pageable.getPageSize());
+        long stamp = version.get();
+        Page<CourseResponseDTO> page = pages.get(key, k -> ReadReplicaRoutingDataSource.onPrimary(loader));
+        // Una carga que empezó antes de un commit puede publicarse después de la invalidación: removeIf
+        // no ve las cargas en curso. Si la versión cambió mientras se cargaba se retira justo esa página;
+        // si la escritura llega después de esta comprobación, su invalidación ya la encuentra en el mapa
+        if (page != null && version.get() != stamp) {
+            pages.asMap().remove(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Invalida el curso y las páginas que podrían contenerlo, antes o después del cambio de módulo.
+     * Se ejecuta tras el commit para que una lectura concurrente no vuelva a cargar datos viejos.
+     */
+    public void evictCourse(Long id, String previousModule, String currentModule) {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            if (id != null) {
+                byId.invalidate(id);
+            }
+            String previous = normalize(previousModule);
+            String current = normalize(currentModule);
+            pages.asMap().keySet().removeIf(key -> key.matches(previous) || key.matches(current));
+        });
+    }
+
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            version.incrementAndGet();
+            byId.invalidateAll();
+            pages.invalidateAll();
+        });
+    }
+
+    public Map<String, CacheStatsDTO> stats() {
+        return Map.of(
+                "coursesById", CacheStatsDTO.from(byId.stats(), byId.estimatedSize()),
+                "coursePages", CacheStatsDTO.from(pages.stats(), pages.estimatedSize())
+        );
+    }
+
+    private static String normalize(String module) {
+        return module == null || module.isBlank() ? null : module.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clave de una página cacheada; {@code module} es el filtro normalizado o null si no hay filtro.
+     */
+    private record PageKey(String module, int page, int size) {
+
+        // Una página sin filtro puede contener cualquier curso; una filtrada solo los que contienen el filtro
+        boolean matches(String courseModule) {
+            return module == null || (courseModule != null && courseModule.contains(module));
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.repository.CourseBatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copia del catálogo completo en memoria, por columnas (app.courses.index.enabled=true).
+ *
+ * Los ids van ordenados en un long[] y cada campo en su propio array; las fechas y la versión como long,
+ * los módulos internados con una lista de posiciones (int[]) por módulo. Así un curso ocupa unos
+ * 50 bytes más sus textos, frente a los objetos de la entidad o del DTO (ver CourseCatalogIndexMemoryBenchmarkTest).
+ *
+ * Las lecturas usan una instantánea inmutable, sin locks. Cada escritura confirmada en esta instancia publica
+ * una instantánea nueva (copy-on-write, O(n)): el catálogo se lee mucho más de lo que se escribe.
+ * Se reconstruye al arrancar, tras una carga masiva y cada {@code refreshInterval}, lo que recoge los cambios
+ * de otras instancias. Mientras no hay instantánea CoursesServiceImpl lee de la BD.
+ */
+@Component
+public class CourseCatalogIndex {
+
+    public CourseCatalogIndex(CourseBatchRepository courseBatchRepository,
+                              @Value("${app.courses.index.enabled:false}") boolean enabled,
+                              @Value("${app.courses.index.refresh-interval:10m}") Duration refreshInterval) {
+        this.courseBatchRepository = courseBatchRepository;
+        this.enabled = enabled;
+        // Si falla se reintenta en la siguiente ejecución; mientras tanto sigue valiendo la instantánea anterior (o la BD)
+        this.loader = new PeriodicTask("catalog-index", refreshInterval, this::rebuild);
+    }
+
+    private final CourseBatchRepository courseBatchRepository;
+    private final boolean enabled;
+
+    // Serializa las escrituras y el cambio de instantánea; ReentrantLock por lo mismo que en ModuleRegistry
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    // Escrituras confirmadas mientras corre una reconstrucción: se reaplican sobre su resultado (son idempotentes)
+    private List<Change> pending;
+    // Cambia con cada carga masiva; una reconstrucción empezada antes no llega a publicarse
+    private final AtomicLong generation = new AtomicLong();
+    private final PeriodicTask loader;
+
+    /**
+     * La instantánea actual, o null si el índice está desactivado o aún no se ha cargado.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public void courseSaved(CourseResponseDTO course) {
+        if (!enabled) return;
+        AfterCommit.run(() -> apply(new Change(course.id(), course)));
+    }
+
+    public void courseDeleted(Long id) {
+        if (!enabled) return;
+        AfterCommit.run(() -> apply(new Change(id, null)));
+    }
+
+    /**
+     * Descarta la instantánea y la reconstruye en segundo plano, por ejemplo tras una carga masiva.
+     */
+    public void invalidate() {
+        if (!enabled) return;
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            snapshot = null;
+            loader.runNow();
+        });
+    }
+
+    /**
+     * Lee el catálogo entero en orden de id y publica una instantánea nueva.
+     */
+    public void rebuild() {
+        long startedAt = generation.get();
+        lock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        Snapshot built;
+        try {
+            Snapshot.Builder builder = new Snapshot.Builder();
+            // Del primario: una réplica con retraso perdería las escrituras confirmadas antes de empezar
+            courseBatchRepository.streamAllFromPrimary(builder::add);
+            built = builder.build();
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                pending = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            for (Change change : pending) {
+                built = built.apply(change);
+            }
+            pending = null;
+            if (generation.get() == startedAt) {
+                snapshot = built;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            loader.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.stop();
+    }
+
+    private void apply(Change change) {
+        lock.lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            }
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.apply(change);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Alta o modificación de un curso; {@code course} null es un borrado.
+     */
+    private record Change(long id, CourseResponseDTO course) {
+    }
+
+    /**
+     * Catálogo inmutable por columnas; la fila i de cada array es el curso {@code ids[i]}.
+     */
+    public static final class Snapshot {
+
+        private static final long NULL = Long.MIN_VALUE;
+        private static final int[] NONE = new int[0];
+
+        private Snapshot(long[] ids, String[] titles, String[] descriptions, int[] moduleOrdinals, String[] durations,
+                         String[] images, long[] createdAt, long[] updatedAt, long[] versions, String[] modules) {
+            this.ids = ids;
+            this.titles = titles;
+            this.descriptions = descriptions;
+            this.moduleOrdinals = moduleOrdinals;
+            this.durations = durations;
+            this.images = images;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.versions = versions;
+            this.modules = modules;
+            this.moduleKeys = new String[modules.length];
+            for (int m = 0; m < modules.length; m++) {
+                moduleKeys[m] = modules[m].toLowerCase(Locale.ROOT);
+            }
+            this.postings = postings(moduleOrdinals, modules.length);
+        }
+
+        private final long[] ids;
+        private final String[] titles;
+        private final String[] descriptions;
+        // -1 si el curso no tiene módulo
+        private final int[] moduleOrdinals;
+        private final String[] durations;
+        private final String[] images;
+        // Nanosegundos desde 1970 (UTC como referencia fija, no como zona), NULL si no hay fecha
+        private final long[] createdAt;
+        private final long[] updatedAt;
+        private final long[] versions;
+        // Módulos internados; un módulo que se queda sin cursos sigue aquí, vacío, hasta la siguiente reconstrucción
+        private final String[] modules;
+        private final String[] moduleKeys;
+        // Posiciones (ordenadas, luego también por id) de los cursos de cada módulo
+        private final int[][] postings;
+
+        public int size() {
+            return ids.length;
+        }
+
+        public CourseResponseDTO get(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index < 0 ? null : row(index);
+        }
+
+        /**
+         * Página en orden de id; {@code module} filtra como LOWER(module) LIKE '%texto%'.
+         */
+        public Page<CourseResponseDTO> page(String module, Pageable pageable) {
+            int[] positions = positions(module);
+            int total = positions == null ? ids.length : positions.length;
+            List<CourseResponseDTO> content = new ArrayList<>(pageable.getPageSize());
+            for (long k = pageable.getOffset(); k < total && content.size() < pageable.getPageSize(); k++) {
+                content.add(row(positions == null ? (int) k : positions[(int) k]));
+            }
+            return new PageImpl<>(content, pageable, total);
+        }
+
+        /**
+         * Hasta {@code limit} cursos con id mayor que {@code afterId}, en orden de id.
+         */
+        public List<CourseResponseDTO> after(String module, long afterId, int limit) {
+            int index = Arrays.binarySearch(ids, afterId);
+            int start = index >= 0 ? index + 1 : -index - 1;
+            int[] positions = positions(module);
+            List<CourseResponseDTO> rows = new ArrayList<>(Math.min(limit, 1024));
+            if (positions == null) {
+                for (int i = start; i < ids.length && rows.size() < limit; i++) {
+                    rows.add(row(i));
+                }
+            } else {
+                int k = Arrays.binarySearch(positions, start);
+                for (k = k >= 0 ? k : -k - 1; k < positions.length && rows.size() < limit; k++) {
+                    rows.add(row(positions[k]));
+                }
+            }
+            return rows;
+        }
+
+        // null: sin filtro. Un filtro que casa con varios módulos une sus listas con un BitSet
+        private int[] positions(String filter) {
+            if (filter == null || filter.isBlank()) return null;
+            String key = filter.trim().toLowerCase(Locale.ROOT);
+            int[] single = null;
+            BitSet union = null;
+            for (int m = 0; m < modules.length; m++) {
+                if (postings[m].length == 0 || !moduleKeys[m].contains(key)) continue;
+                if (single == null) {
+                    single = postings[m];
+                    continue;
+                }
+                if (union == null) {
+                    union = new BitSet(ids.length);
+                    for (int position : single) union.set(position);
+                }
+                for (int position : postings[m]) union.set(position);
+            }
+            if (union != null) return union.stream().toArray();
+            return single != null ? single : NONE;
+        }
+
+        private CourseResponseDTO row(int i) {
+            return new CourseResponseDTO(
+                    ids[i],
+                    titles[i],
+                    descriptions[i],
+                    moduleOrdinals[i] < 0 ? null : modules[moduleOrdinals[i]],
+                    durations[i],
+                    images[i],
+                    toDateTime(createdAt[i]),
+                    toDateTime(updatedAt[i]),
+                    versions[i] == NULL ? null : versions[i]
+            );
+        }
+
+        private Snapshot apply(Change change) {
+            int index = Arrays.binarySearch(ids, change.id());
+            if (change.course() == null) {
+                return index < 0 ? this : splice(index, 1, null);
+            }
+            if (index < 0) {
+                return splice(-index - 1, 0, change.course());
+            }
+            // Dos actualizaciones del mismo curso pueden confirmar en un orden y llegar en otro
+            Long version = change.course().version();
+            if (version != null && versions[index] != NULL && versions[index] > version) return this;
+            return splice(index, 1, change.course());
+        }
+
+        // Copia de todas las columnas quitando {@code remove} filas en {@code at} e insertando {@code course} si no es null
+        private Snapshot splice(int at, int remove, CourseResponseDTO course) {
+            int insert = course == null ? 0 : 1;
+            int size = ids.length - remove + insert;
+            String[] newModules = modules;
+            int ordinal = -1;
+            if (course != null && course.module() != null) {
+                ordinal = Arrays.asList(modules).indexOf(course.module());
+                if (ordinal < 0) {
+                    ordinal = modules.length;
+                    newModules = Arrays.copyOf(modules, modules.length + 1);
+                    newModules[ordinal] = course.module();
+                }
+            }
+            long[] newIds = copyAround(ids, new long[size], at, remove, insert);
+            String[] newTitles = copyAround(titles, new String[size], at, remove, insert);
+            String[] newDescriptions = copyAround(descriptions, new String[size], at, remove, insert);
+            int[] newModuleOrdinals = copyAround(moduleOrdinals, new int[size], at, remove, insert);
+            String[] newDurations = copyAround(durations, new String[size], at, remove, insert);
+            String[] newImages = copyAround(images, new String[size], at, remove, insert);
+            long[] newCreatedAt = copyAround(createdAt, new long[size], at, remove, insert);
+            long[] newUpdatedAt = copyAround(updatedAt, new long[size], at, remove, insert);
+            long[] newVersions = copyAround(versions, new long[size], at, remove, insert);
+            if (course != null) {
+                newIds[at] = course.id();
+                newTitles[at] = course.title();
+                newDescriptions[at] = course.description();
+                newModuleOrdinals[at] = ordinal;
+                newDurations[at] = course.durationHours();
+                newImages[at] = course.badgeImage();
+                newCreatedAt[at] = toNanos(course.createdAt());
+                newUpdatedAt[at] = toNanos(course.updatedAt());
+                newVersions[at] = course.version() == null ? NULL : course.version();
+            }
+            return new Snapshot(newIds, newTitles, newDescriptions, newModuleOrdinals, newDurations, newImages,
+                    newCreatedAt, newUpdatedAt, newVersions, newModules);
+        }
+
+        private <T> T copyAround(T source, T target, int at, int remove, int insert) {
+            System.arraycopy(source, 0, target, 0, at);
+            System.arraycopy(source, at + remove, target, at + insert, ids.length - at - remove);
+            return target;
+        }
+
+        private static int[][] postings(int[] moduleOrdinals, int moduleCount) {
+            int[] counts = new int[moduleCount];
+            for (int ordinal : moduleOrdinals) {
+                if (ordinal >= 0) counts[ordinal]++;
+            }
+            int[][] postings = new int[moduleCount][];
+            for (int m = 0; m < moduleCount; m++) {
+                postings[m] = counts[m] == 0 ? NONE : new int[counts[m]];
+            }
+            int[] filled = new int[moduleCount];
+            for (int i = 0; i < moduleOrdinals.length; i++) {
+                int ordinal = moduleOrdinals[i];
+                if (ordinal >= 0) postings[ordinal][filled[ordinal]++] = i;
+            }
+            return postings;
+        }
+
+        private static long toNanos(LocalDateTime dateTime) {
+            return dateTime == null ? NULL : dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+        }
+
+        private static LocalDateTime toDateTime(long nanos) {
+            return nanos == NULL ? null : LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+        }
+
+        /**
+         * Acumula cursos en orden de id creciente (el de CourseBatchRepository.streamAllFromPrimary).
+         * Los módulos, duraciones e imágenes se repiten mucho: se guarda una sola instancia de cada valor.
+         */
+        static final class Builder {
+
+            private long[] ids = new long[1024];
+            private String[] titles = new String[1024];
+            private String[] descriptions = new String[1024];
+            private int[] moduleOrdinals = new int[1024];
+            private String[] durations = new String[1024];
+            private String[] images = new String[1024];
+            private long[] createdAt = new long[1024];
+            private long[] updatedAt = new long[1024];
+            private long[] versions = new long[1024];
+            private int size;
+            private final Map<String, Integer> ordinals = new HashMap<>();
+            private final List<String> modules = new ArrayList<>();
+            private final Map<String, String> values = new HashMap<>();
+
+            void add(CourseResponseDTO course) {
+                if (size > 0 && course.id() <= ids[size - 1]) {
+                    throw new IllegalArgumentException("Courses must arrive in ascending id order");
+                }
+                if (size == ids.length) {
+                    grow(size * 2);
+                }
+                ids[size] = course.id();
+                titles[size] = course.title();
+                descriptions[size] = course.description();
+                moduleOrdinals[size] = course.module() == null ? -1 : ordinals.computeIfAbsent(course.module(), m -> {
+                    modules.add(m);
+                    return modules.size() - 1;
+                });
+                durations[size] = intern(course.durationHours());
+                images[size] = intern(course.badgeImage());
+                createdAt[size] = toNanos(course.createdAt());
+                updatedAt[size] = toNanos(course.updatedAt());
+                versions[size] = course.version() == null ? NULL : course.version();
+                size++;
+            }
+
+            Snapshot build() {
+                grow(size);
+                return new Snapshot(ids, titles, descriptions, moduleOrdinals, durations, images,
+                        createdAt, updatedAt, versions, modules.toArray(String[]::new));
+            }
+
+            private String intern(String value) {
+                return value == null ? null : values.computeIfAbsent(value, v -> v);
+            }
+
+            private void grow(int capacity) {
+                ids = Arrays.copyOf(ids, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                moduleOrdinals = Arrays.copyOf(moduleOrdinals, capacity);
+                durations = Arrays.copyOf(durations, capacity);
+                images = Arrays.copyOf(images, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                updatedAt = Arrays.copyOf(updatedAt, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.manudev.auth_catalog_kata.config.ReadReplicaRoutingDataSource;
+import org.manudev.auth_catalog_kata.dto.ModuleCatalogDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCountDTO;
+import org.manudev.auth_catalog_kata.repository.ICourseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto ordenado de módulos con el número de cursos de cada uno.
+ * Se carga con un GROUP BY la primera vez y después se mantiene con las escrituras de CoursesServiceImpl.
+ * Se recarga cada {@code refreshInterval} para recoger cambios hechos por otras instancias
+ * y corregir cualquier desviación de los contadores.
+ */
+@Component
+public class ModuleRegistry {
+
+    public ModuleRegistry(ICourseRepository courseRepository,
+                          @Value("${app.courses.modules.refresh-interval:5m}") Duration refreshInterval) {
+        this.courseRepository = courseRepository;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    private final ICourseRepository courseRepository;
+    private final long refreshIntervalNanos;
+
+    // Protegido por "lock"; las lecturas usan la instantánea inmutable.
+    // ReentrantLock por tryLock: con la instantánea caducada solo recarga quien lo consigue, sin esperar
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<String, Integer> counts = new TreeMap<>();
+    private volatile ModuleCatalogDTO catalog;
+    private volatile long loadedAtNanos;
+
+    /**
+     * Con una instantánea caducada solo un hilo la recarga; el resto sigue sirviendo la anterior
+     * mientras tanto. Sin instantánea (arranque o tras invalidate) esperan a la única carga en curso.
+     */
+    public ModuleCatalogDTO catalog() {
+        ModuleCatalogDTO current = catalog;
+        if (current != null && !isStale()) {
+            return current;
+        }
+        if (current != null) {
+            if (!lock.tryLock()) return current;
+        } else {
+            lock.lock();
+        }
+        try {
+            // Otro hilo pudo recargar mientras este esperaba el lock
+            if (catalog == null || isStale()) {
+                load();
+            }
+            return catalog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ModuleCatalogDTO reload() {
+        lock.lock();
+        try {
+            load();
+            return catalog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isStale() {
+        return System.nanoTime() - loadedAtNanos > refreshIntervalNanos;
+    }
+
+    // Con el lock tomado. Del primario: los contadores se mantienen con deltas sobre lo cargado
+    private void load() {
+        counts.clear();
+        for (ModuleCountDTO row : ReadReplicaRoutingDataSource.onPrimary(courseRepository::countCoursesByModule)) {
+            counts.put(row.module(), row.total().intValue());
+        }
+        loadedAtNanos = System.nanoTime();
+        publish();
+    }
+
+    public void courseAdded(String module) {
+        if (module == null) return;
+        AfterCommit.run(() -> apply(module, 1));
+    }
+
+    public void courseRemoved(String module) {
+        if (module == null) return;
+        AfterCommit.run(() -> apply(module, -1));
+    }
+
+    public void courseMoved(String previousModule, String currentModule) {
+        if (Objects.equals(previousModule, currentModule)) return;
+        courseRemoved(previousModule);
+        courseAdded(currentModule);
+    }
+
+    /**
+     * Fuerza una recarga completa en la próxima lectura, por ejemplo tras una carga masiva.
+     */
+    public void invalidate() {
+        AfterCommit.run(() -> catalog = null);
+    }
+
+    private void apply(String module, int delta) {
+        lock.lock();
+        try {
+            // Sin cargar todavía: la primera lectura ya verá la fila confirmada
+            if (catalog == null) return;
+
+            int total = counts.getOrDefault(module, 0) + delta;
+            boolean changed;
+            if (total > 0) {
+                changed = counts.put(module, total) == null;
+            } else {
+                changed = counts.remove(module) != null;
+            }
+            if (changed) {
+                publish();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish() {
+        List<String> modules = List.copyOf(counts.keySet());
+        catalog = new ModuleCatalogDTO(modules, etag(modules));
+    }
+
+    private static String etag(List<String> modules) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String module : modules) {
+                sha256.update(module.getBytes(StandardCharsets.UTF_8));
+                sha256.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(sha256.digest(), 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarea de fondo en su propio hilo daemon con nombre: se ejecuta al arrancar y después cada {@code interval}
+ * desde el final de la ejecución anterior. Un fallo se registra con su traza y se reintenta en la siguiente
+ * ejecución; los componentes lo arrancan en ApplicationReadyEvent y lo paran en @PreDestroy.
+ */
+public final class PeriodicTask {
+
+    private static final Logger log = LoggerFactory.getLogger(PeriodicTask.class);
+
+    public PeriodicTask(String name, Duration interval, Runnable task) {
+        this.name = name;
+        this.interval = interval;
+        this.task = task;
+    }
+
+    private final String name;
+    private final Duration interval;
+    private final Runnable task;
+    private volatile ScheduledExecutorService executor;
+
+    public synchronized void start() {
+        if (executor != null) return;
+        ScheduledExecutorService started = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        started.scheduleWithFixedDelay(this::runQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        executor = started;
+    }
+
+    /**
+     * Una ejecución extra en el mismo hilo, fuera de calendario; no hace nada si la tarea no está arrancada.
+     */
+    public void runNow() {
+        ScheduledExecutorService current = executor;
+        if (current != null) {
+            current.execute(this::runQuietly);
+        }
+    }
+
+    public synchronized void stop() {
+        if (executor == null) return;
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    private void runQuietly() {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Background task {} failed, retrying in {}", name, interval, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.manudev.auth_catalog_kata.entities.Role;
+import org.manudev.auth_catalog_kata.repository.IRoleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tabla de roles en memoria (nombre -> rol), cargada entera con una sola consulta.
+ * Los roles son pocos y casi nunca cambian; si llega un nombre desconocido se recarga una vez
+ * antes de fallar, y {@link #invalidate()} fuerza la recarga cuando se modifica la tabla roles.
+ */
+@Component
+public class RoleCache {
+
+    public RoleCache(IRoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    private final IRoleRepository roleRepository;
+    private volatile Map<String, Role> byName;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    /**
+     * Resuelve los nombres a roles. Devuelve copias desacopladas (solo id y nombre),
+     * válidas para asignarlas a un usuario nuevo sin consultar la BD.
+     */
+    public Set<Role> resolve(Set<String> names) {
+        Map<String, Role> current = byName != null ? byName : reload();
+        if (!current.keySet().containsAll(names)) {
+            current = reload();
+        }
+        Set<Role> roles = new HashSet<>();
+        for (String name : names) {
+            Role role = current.get(name);
+            if (role == null) {
+                throw new RuntimeException("Role " + name + " not found");
+            }
+            roles.add(Role.builder().id(role.getId()).name(role.getName()).build());
+        }
+        return roles;
+    }
+
+    public void invalidate() {
+        byName = null;
+    }
+
+    private Map<String, Role> reload() {
+        Map<String, Role> loaded = roleRepository.findAll().stream()
+                .map(role -> Role.builder().id(role.getId()).name(role.getName()).build())
+                .collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity()));
+        byName = loaded;
+        return loaded;
+    }
+}
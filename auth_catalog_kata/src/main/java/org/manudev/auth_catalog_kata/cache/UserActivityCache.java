@@ -0,0 +1,43 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.manudev.auth_catalog_kata.dto.CacheStatsDTO;
+import org.manudev.auth_catalog_kata.dto.UserActivityDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache por usuario de su progreso y sus insignias, de vida corta.
+ * Absorbe las recargas del dashboard; los cambios de progreso del propio usuario la invalidan,
+ * las insignias (que se escriben en segundo plano) aparecen como mucho tras el TTL.
+ */
+@Component
+public class UserActivityCache {
+
+    public UserActivityCache(@Value("${app.dashboard.cache.max-size:10000}") long maxSize,
+                             @Value("${app.dashboard.cache.ttl:10s}") Duration ttl) {
+        this.activity = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private final Cache<Long, UserActivityDTO> activity;
+
+    public UserActivityDTO get(Long userId, Supplier<UserActivityDTO> loader) {
+        return activity.get(userId, key -> loader.get());
+    }
+
+    public void evict(Long userId) {
+        AfterCommit.run(() -> activity.invalidate(userId));
+    }
+
+    public CacheStatsDTO stats() {
+        return CacheStatsDTO.from(activity.stats(), activity.estimatedSize());
+    }
+}
@@ -0,0 +1,149 @@
+package org.manudev.auth_catalog_kata.codec;
+
+import java.util.Arrays;
+
+/**
+ * Codificador CBOR (RFC 8949) mínimo sobre un buffer reutilizable: enteros, textos UTF-8,
+ * booleanos, null, arrays y mapas de longitud conocida. Sin objetos intermedios por valor.
+ * No es seguro entre hilos; CoursePageCbor reparte instancias desde un pool.
+ */
+final class CborWriter {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+
+    CborWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    private byte[] buffer;
+    private int length;
+
+    void reset() {
+        length = 0;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    CborWriter writeArrayHeader(int size) {
+        writeHead(MAJOR_ARRAY, size);
+        return this;
+    }
+
+    CborWriter writeMapHeader(int size) {
+        writeHead(MAJOR_MAP, size);
+        return this;
+    }
+
+    CborWriter writeLong(long value) {
+        if (value >= 0) {
+            writeHead(MAJOR_UNSIGNED, value);
+        } else {
+            // -1 - n: el complemento a uno del valor
+            writeHead(MAJOR_NEGATIVE, ~value);
+        }
+        return this;
+    }
+
+    CborWriter writeBoolean(boolean value) {
+        ensure(1);
+        buffer[length++] = (byte) (value ? 0xf5 : 0xf4);
+        return this;
+    }
+
+    CborWriter writeNull() {
+        ensure(1);
+        buffer[length++] = (byte) 0xf6;
+        return this;
+    }
+
+    CborWriter writeString(String value) {
+        if (value == null) {
+            return writeNull();
+        }
+        int bytes = utf8Length(value);
+        writeHead(MAJOR_TEXT, bytes);
+        ensure(bytes);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xc0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[length++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else {
+                // Un surrogate suelto no es UTF-8 válido: se sustituye por U+FFFD, como String.getBytes
+                if (Character.isSurrogate(c)) c = '�';
+                buffer[length++] = (byte) (0xe0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[length++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return this;
+    }
+
+    // Cabecera de un elemento: tipo mayor en los 3 bits altos y el argumento con el menor tamaño posible
+    private void writeHead(int major, long argument) {
+        ensure(9);
+        int type = major << 5;
+        if (argument < 24) {
+            buffer[length++] = (byte) (type | (int) argument);
+        } else if (argument <= 0xff) {
+            buffer[length++] = (byte) (type | 24);
+            buffer[length++] = (byte) argument;
+        } else if (argument <= 0xffff) {
+            buffer[length++] = (byte) (type | 25);
+            buffer[length++] = (byte) (argument >> 8);
+            buffer[length++] = (byte) argument;
+        } else if (argument <= 0xffffffffL) {
+            buffer[length++] = (byte) (type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (argument >> shift);
+            }
+        } else {
+            buffer[length++] = (byte) (type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (argument >> shift);
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.manudev.auth_catalog_kata.codec;
+
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseSliceDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Representación CBOR (application/cbor) de los listados de cursos, para clientes que la piden en Accept.
+ * Sobre recortado: los nombres de campo van una sola vez ("fields") y cada curso es un array de valores
+ * en ese orden ("rows"); de la página solo se envía number, size y totalElements.
+ * Los codificadores y sus buffers se reutilizan desde un pool acotado.
+ */
+@Component
+public class CoursePageCbor {
+
+    static final List<String> FIELDS = List.of(
+            "id", "title", "description", "module", "durationHours", "badgeImage", "createdAt", "updatedAt", "version");
+
+    private static final int INITIAL_BUFFER = 16 * 1024;
+
+    public CoursePageCbor(
+            @Value("${app.http.cbor.pool-size:0}") int poolSize,
+            @Value("${app.http.cbor.max-retained-buffer:1MB}") DataSize maxRetainedBuffer
+    ) {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.pool = new ArrayBlockingQueue<>(size);
+        this.maxRetainedBytes = maxRetainedBuffer.toBytes();
+    }
+
+    private final BlockingQueue<CborWriter> pool;
+    private final long maxRetainedBytes;
+
+    /**
+     * Página offset: {fields, rows, number, size, totalElements}
+     */
+    public byte[] encode(Page<CourseResponseDTO> page) {
+        CborWriter writer = acquire();
+        try {
+            writer.writeMapHeader(5);
+            writeRows(writer, page.getContent());
+            writer.writeString("number").writeLong(page.getNumber());
+            writer.writeString("size").writeLong(page.getSize());
+            writer.writeString("totalElements").writeLong(page.getTotalElements());
+            return writer.toByteArray();
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * Página por keyset: {fields, rows, hasNext, nextCursor}
+     */
+    public byte[] encode(CourseSliceDTO slice) {
+        CborWriter writer = acquire();
+        try {
+            writer.writeMapHeader(4);
+            writeRows(writer, slice.content());
+            writer.writeString("hasNext").writeBoolean(slice.hasNext());
+            writer.writeString("nextCursor").writeString(slice.nextCursor());
+            return writer.toByteArray();
+        } finally {
+            release(writer);
+        }
+    }
+
+    /**
+     * CBOR solo si el cliente lo nombra explícitamente y con una calidad no menor que la de JSON
+     * (o la de los comodines que lo cubren); ante la duda se mantiene JSON.
+     */
+    public static boolean preferred(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        double cbor = 0;
+        double json = 0;
+        for (MediaType mediaType : mediaTypes) {
+            double quality = mediaType.getQualityValue();
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                cbor = Math.max(cbor, quality);
+            } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                json = Math.max(json, quality);
+            }
+        }
+        return cbor > 0 && cbor >= json;
+    }
+
+    private static void writeRows(CborWriter writer, List<CourseResponseDTO> courses) {
+        writer.writeString("fields").writeArrayHeader(FIELDS.size());
+        for (String field : FIELDS) {
+            writer.writeString(field);
+        }
+        writer.writeString("rows").writeArrayHeader(courses.size());
+        for (CourseResponseDTO course : courses) {
+            writer.writeArrayHeader(FIELDS.size());
+            writeLong(writer, course.id());
+            writer.writeString(course.title());
+            writer.writeString(course.description());
+            writer.writeString(course.module());
+            writer.writeString(course.durationHours());
+            writer.writeString(course.badgeImage());
+            writeDateTime(writer, course.createdAt());
+            writeDateTime(writer, course.updatedAt());
+            writeLong(writer, course.version());
+        }
+    }
+
+    private static void writeLong(CborWriter writer, Long value) {
+        if (value == null) {
+            writer.writeNull();
+        } else {
+            writer.writeLong(value);
+        }
+    }
+
+    // Texto ISO-8601 como en JSON, así los clientes parsean las fechas igual en ambos formatos
+    private static void writeDateTime(CborWriter writer, LocalDateTime value) {
+        writer.writeString(value == null ? null : value.toString());
+    }
+
+    private CborWriter acquire() {
+        CborWriter writer = pool.poll();
+        return writer != null ? writer : new CborWriter(INITIAL_BUFFER);
+    }
+
+    // Un buffer que creció por una página enorme no se queda retenido en el pool
+    private void release(CborWriter writer) {
+        if (writer.capacity() <= maxRetainedBytes) {
+            writer.reset();
+            pool.offer(writer);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Activa el control de admisión de conexiones (app.datasource.admission.enabled=true).
+ * Pensado para el modo de hilos virtuales (perfil "virtual", Java 21+).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.admission.enabled", havingValue = "true")
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int maxConcurrent = environment.getProperty("app.datasource.admission.max-concurrent", Integer.class, poolSize);
+        int maxQueue = environment.getProperty("app.datasource.admission.max-queue", Integer.class, 1000);
+        long timeoutMillis = environment.getProperty("app.datasource.admission.timeout-ms", Long.class, 30000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Solo el DataSource de la aplicación; con réplica los pools internos quedan detrás de él
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof AdmissionControlledDataSource)) {
+                    return new AdmissionControlledDataSource(dataSource, maxConcurrent, maxQueue, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package org.manudev.auth_catalog_kata.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Con spring.main.lazy-initialization (perfil "prod") cada bean se crea en su primer uso.
+ * La persistencia sigue creándose al arrancar: un esquema que no valida debe parar el arranque,
+ * y la primera petición no debe pagar el arranque de Hibernate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.main.lazy-initialization", havingValue = "true")
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class);
+    }
+}
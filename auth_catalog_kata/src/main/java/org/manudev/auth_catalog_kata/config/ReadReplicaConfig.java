@@ -0,0 +1,52 @@
+package org.manudev.auth_catalog_kata.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Lecturas en réplica (app.datasource.replica.enabled=true, perfil "replica").
+ * El primario se configura igual que siempre (spring.datasource.*); la réplica con app.datasource.replica.*
+ * (jdbc-url, username, password y cualquier propiedad de Hikari).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Los pools no son candidatos a inyección: el resto de la aplicación solo ve "dataSource"
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration window,
+                                 @Value("${app.datasource.replica.read-your-writes-max-users:100000}") long maxUsers) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                primaryDataSource(properties), replicaDataSource(), new ReadYourWritesWindow(window, maxUsers));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
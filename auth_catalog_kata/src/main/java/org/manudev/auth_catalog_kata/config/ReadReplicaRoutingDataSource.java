@@ -0,0 +1,72 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Envía las transacciones de solo lectura a la réplica y todo lo demás al primario.
+ * Va envuelto en un LazyConnectionDataSourceProxy: la conexión física se pide en la primera sentencia,
+ * cuando el flag readOnly de la transacción ya está fijado.
+ * Una transacción de escritura marca al usuario y durante la ventana de read-your-writes
+ * sus lecturas también van al primario.
+ * Las cargas que se cachean leen del primario con {@link #onPrimary}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow window) {
+        this.window = window;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    private final ReadYourWritesWindow window;
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    /**
+     * Ejecuta {@code action} con sus lecturas en el primario aunque las transacciones sean de solo lectura.
+     * Para lo que se cachea: un dato leído de una réplica con retraso se serviría a todos hasta que caduque.
+     * Solo afecta a las conexiones que se pidan dentro de {@code action}; no redirige una transacción
+     * que ya tenga la suya.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (FORCE_PRIMARY.get() != null) {
+            return action.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                window.recordWrite(user);
+            }
+            return Target.PRIMARY;
+        }
+        if (FORCE_PRIMARY.get() != null) {
+            return Target.PRIMARY;
+        }
+        return user != null && window.recentlyWrote(user) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || !authentication.isAuthenticated() ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package org.manudev.auth_catalog_kata.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Usuarios que han escrito hace menos de {@code window}: sus lecturas van al primario
+ * para que vean su propia escritura aunque la réplica vaya con retraso.
+ * Es local a cada instancia; la ventana debe cubrir el retraso habitual de la réplica.
+ */
+public class ReadYourWritesWindow {
+
+    public ReadYourWritesWindow(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public void recordWrite(String user) {
+        recentWriters.put(user, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(String user) {
+        return recentWriters.getIfPresent(user) != null;
+    }
+}
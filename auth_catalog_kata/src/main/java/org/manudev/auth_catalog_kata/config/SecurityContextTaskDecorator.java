@@ -0,0 +1,20 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propaga el usuario autenticado a las tareas de applicationTaskExecutor (Spring Boot aplica el TaskDecorator
+ * tanto al pool como al ejecutor de hilos virtuales). Sin él, una lectura lanzada en paralelo desde una petición
+ * no tiene usuario y ReadReplicaRoutingDataSource la manda a la réplica aunque esté en su ventana de read-your-writes.
+ */
+@Component
+public class SecurityContextTaskDecorator implements TaskDecorator {
+
+    // El contexto se captura en el hilo que envía la tarea, no en el que la ejecuta
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return new DelegatingSecurityContextRunnable(runnable);
+    }
+}
@@ -0,0 +1,31 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Perfil "virtual": spring.threads.virtual.enabled solo tiene efecto en Java 21+ y el proyecto compila para 17.
+ * En un runtime anterior Spring Boot ignoraría la propiedad sin avisar y la aplicación arrancaría con hilos de
+ * plataforma y el control de admisión activo, así que el arranque se para con un error claro.
+ */
+@Configuration
+@Profile("virtual")
+public class VirtualThreadsConfig {
+
+    static final int REQUIRED_JAVA_VERSION = 21;
+
+    // BeanFactoryPostProcessor para que la comprobación se ejecute también con lazy-initialization
+    @Bean
+    public static BeanFactoryPostProcessor virtualThreadsRuntimeCheck() {
+        return beanFactory -> requireVirtualThreads(Runtime.version().feature());
+    }
+
+    static void requireVirtualThreads(int javaVersion) {
+        if (javaVersion < REQUIRED_JAVA_VERSION) {
+            throw new IllegalStateException("The 'virtual' profile requires Java " + REQUIRED_JAVA_VERSION
+                    + "+ at runtime, but this JVM is Java " + javaVersion);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.manudev.auth_catalog_kata.controllers;
+
+import lombok.NonNull;
+import org.manudev.auth_catalog_kata.analytics.BadgeLeaderboard;
+import org.manudev.auth_catalog_kata.analytics.CourseAnalytics;
+import org.manudev.auth_catalog_kata.dto.CourseAnalyticsReportDTO;
+import org.manudev.auth_catalog_kata.dto.LeaderboardDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    public AnalyticsController(CourseAnalytics courseAnalytics, BadgeLeaderboard badgeLeaderboard) {
+        this.courseAnalytics = courseAnalytics;
+        this.badgeLeaderboard = badgeLeaderboard;
+    }
+
+    private final CourseAnalytics courseAnalytics;
+    private final BadgeLeaderboard badgeLeaderboard;
+
+    /**
+     * Tasa de completado por curso y módulo, percentiles del tiempo hasta completar y usuarios activos por día.
+     * Se sirve desde los contadores en memoria: el coste no depende del número de filas de progreso.
+     */
+    @GetMapping("/courses")
+    public ResponseEntity<@NonNull CourseAnalyticsReportDTO> getCourseAnalytics() {
+        return ResponseEntity.ok(courseAnalytics.report());
+    }
+
+    /**
+     * Usuarios con más insignias, en global o en un módulo. Lee la última clasificación publicada en memoria.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<@NonNull LeaderboardDTO> getLeaderboard(
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? 10 : limit;
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return ResponseEntity.ok(badgeLeaderboard.top(module == null || module.isBlank() ? null : module, size));
+    }
+}
@@ -7,6 +7,7 @@ import org.manudev.auth_catalog_kata.services.interfaces.IUserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 
@@ -36,6 +37,9 @@ public class AuthController {
         try {
             User newUser = userService.createUser(userDto);
             return new ResponseEntity<>(newUser, HttpStatus.OK);
+        } catch (ResponseStatusException e) {
+            // 429/503 del pool de BCrypt: se propagan tal cual
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -1,58 +1,207 @@
 package org.manudev.auth_catalog_kata.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
+import org.manudev.auth_catalog_kata.codec.CoursePageCbor;
+import org.manudev.auth_catalog_kata.dto.CacheStatsDTO;
+import org.manudev.auth_catalog_kata.dto.CourseExportFormat;
+import org.manudev.auth_catalog_kata.dto.CourseImportResultDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestDTO;
+import org.manudev.auth_catalog_kata.dto.CourseRequestKeysetDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
 import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseSliceDTO;
+import org.manudev.auth_catalog_kata.dto.CourseVersionDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCatalogDTO;
 import org.manudev.auth_catalog_kata.services.interfaces.ICoursesService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/courses")
 public class CoursesController {
 
-    public CoursesController(ICoursesService coursesService) {
+    public CoursesController(ICoursesService coursesService,
+                             JsonMapper jsonMapper,
+                             CoursePageCbor coursePageCbor,
+                             @Value("${app.http.cache-control.courses:private, no-cache}") String coursesCacheControl,
+                             @Value("${app.http.cache-control.course:private, no-cache}") String courseCacheControl,
+                             @Value("${app.http.cache-control.modules:private, max-age=60}") String modulesCacheControl) {
         this.coursesService = coursesService;
+        this.jsonMapper = jsonMapper;
+        this.coursePageCbor = coursePageCbor;
+        this.coursesCacheControl = coursesCacheControl;
+        this.courseCacheControl = courseCacheControl;
+        this.modulesCacheControl = modulesCacheControl;
     }
 
     private ICoursesService coursesService;
+    private final JsonMapper jsonMapper;
+    private final CoursePageCbor coursePageCbor;
+    private final String coursesCacheControl;
+    private final String courseCacheControl;
+    private final String modulesCacheControl;
 
     /**
      * Lista cursos con paginación.
      * Query params:
      *  - module (opcional): filtro por módulo
      *  - page (opcional): número de página (0-based)
-     *  - size (opcional): tamaño de página
+     *  - size (opcional): tamaño de página; en keyset como mucho CourseRequestKeysetDTO.MAX_SIZE (100)
+     *  - after (opcional): activa la paginación por keyset; vacío para la primera página,
+     *    luego el nextCursor de la respuesta anterior
+     *  - sort (opcional, solo keyset): "id" (por defecto) o "updatedAt"
+     * Lleva el ETag de la versión del catálogo: con If-None-Match se responde 304 sin consultar nada.
+     * Con "Accept: application/cbor" la respuesta va en CBOR con el sobre recortado de CoursePageCbor;
+     * cada representación tiene su propio ETag y la respuesta lleva "Vary: Accept".
      */
 
     @GetMapping
-    public ResponseEntity<@NonNull Page<CourseResponseDTO>> listCourses(
+    public ResponseEntity<?> listCourses(
             @RequestParam(required = false) String module,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest
     ) {
+        boolean cbor = CoursePageCbor.preferred(accept);
+        String catalogETag = coursesService.getCatalogETag();
+        String etag = cbor ? cborETag(catalogETag) : catalogETag;
+        if (webRequest.checkNotModified(etag)) {
+            return notModified(etag, null, coursesCacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, coursesCacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (after != null) {
+            CourseSliceDTO slice = coursesService.listCoursesAfter(new CourseRequestKeysetDTO(module, after, sort, size));
+            return cbor
+                    ? response.contentType(MediaType.APPLICATION_CBOR).body(coursePageCbor.encode(slice))
+                    : response.body(slice);
+        }
         CourseRequestPageableDTO req = new CourseRequestPageableDTO(module, page, size);
         Page<CourseResponseDTO> result = coursesService.listCourses(req);
-        return ResponseEntity.ok(result);
+        return cbor
+                ? response.contentType(MediaType.APPLICATION_CBOR).body(coursePageCbor.encode(result))
+                : response.body(result);
     }
 
+    // "catalog-…" -> "catalog-…-cbor": misma versión del catálogo, distinta representación
+    private static String cborETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-cbor\"";
+    }
+
+    /**
+     * Lista de módulos servida desde memoria con ETag; si If-None-Match coincide se responde 304 sin cuerpo
+     */
     @GetMapping("/modules")
     public ResponseEntity<@NonNull List<String>> getModules() {
-        return new ResponseEntity<>(coursesService.getAvailableModules() ,HttpStatus.OK);
+        ModuleCatalogDTO catalog = coursesService.getModuleCatalog();
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .header(HttpHeaders.CACHE_CONTROL, modulesCacheControl)
+                .body(catalog.modules());
+    }
+
+    /**
+     * Métricas de la cache del catálogo (tamaño, aciertos, fallos, hit ratio y evicciones)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<@NonNull Map<String, CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(coursesService.getCacheStats());
     }
 
     /**
-     * Obtener un curso por id
+     * Obtener un curso por id.
+     * ETag (id + versión) y Last-Modified (updatedAt); la comprobación de If-None-Match / If-Modified-Since
+     * solo lee esas columnas (o la cache), el curso completo se carga únicamente si hay que enviarlo.
      */
 
     @GetMapping("/{id}")
-    public ResponseEntity<@NonNull CourseResponseDTO> getCourseById(@PathVariable Long id) {
-        return ResponseEntity.ok(coursesService.getCourseById(id));
+    public ResponseEntity<@NonNull CourseResponseDTO> getCourseById(@PathVariable Long id, WebRequest webRequest) {
+        Optional<CourseVersionDTO> current = coursesService.getCourseVersion(id);
+        if (current.isPresent() && current.get().version() != null && current.get().updatedAt() != null) {
+            String etag = courseETag(id, current.get().version());
+            long lastModifiedMillis = toEpochMillis(current.get().updatedAt());
+            if (webRequest.checkNotModified(etag, lastModifiedMillis)) {
+                return notModified(etag, lastModifiedMillis, courseCacheControl).build();
+            }
+        }
+
+        return withValidators(ResponseEntity.ok(), coursesService.getCourseById(id));
+    }
+
+    private ResponseEntity<CourseResponseDTO> withValidators(ResponseEntity.BodyBuilder response, CourseResponseDTO course) {
+        response.header(HttpHeaders.CACHE_CONTROL, courseCacheControl);
+        if (course.version() != null) {
+            response.eTag(courseETag(course.id(), course.version()));
+        }
+        if (course.updatedAt() != null) {
+            response.lastModified(toEpochMillis(course.updatedAt()));
+        }
+        return response.body(course);
+    }
+
+    private static ResponseEntity.BodyBuilder notModified(String etag, Long lastModifiedMillis, String cacheControl) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (lastModifiedMillis != null) {
+            response.lastModified(lastModifiedMillis);
+        }
+        return response;
+    }
+
+    private static String courseETag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Versión esperada a partir de If-Match: null si no hay cabecera o es "*".
+     * Un ETag que no es de este curso nunca puede coincidir: 412.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        String prefix = "\"" + id + "-";
+        try {
+            if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // cae al 412
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match course " + id);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     /**
@@ -65,6 +214,71 @@ public class CoursesController {
         return ResponseEntity.ok(coursesService.createCourse(courseRequestDTO));
     }
 
+    /**
+     * Exportación completa del catálogo en streaming, ordenada por id.
+     * Query params:
+     *  - format (opcional): ndjson (por defecto) o csv
+     *  - afterId (opcional): reanuda la exportación tras el último id recibido
+     * Si el cliente acepta gzip la respuesta se comprime sobre la marcha.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        CourseExportFormat exportFormat = CourseExportFormat.fromParam(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFormat.fileName() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192)) {
+                    coursesService.exportCourses(afterId, exportFormat, compressed);
+                }
+            } else {
+                coursesService.exportCourses(afterId, exportFormat, out);
+            }
+        });
+    }
+
+    /**
+     * Importación masiva de cursos.
+     * Acepta un array JSON o NDJSON (un curso por línea) y lo procesa en streaming, sin cargarlo en memoria.
+     * La respuesta es NDJSON: una línea de progreso por lote confirmado y una línea final con el resumen.
+     * Query params:
+     *  - batchSize (opcional): tamaño de lote, por defecto app.courses.import.batch-size
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public void importCourses(@RequestParam(required = false) Integer batchSize,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        OutputStream out = response.getOutputStream();
+
+        CourseImportResultDTO result = coursesService.importCourses(request.getInputStream(), batchSize, progress -> {
+            try {
+                writeLine(out, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeLine(out, result);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(value));
+        out.write('\n');
+        out.flush();
+    }
+
     /**
      * Eliminar un curso por id
      */
@@ -75,11 +289,15 @@ public class CoursesController {
     }
 
     /**
-     * Actualizar un curso según su id, si algunos datos vienen vacíos, no se actualizan
+     * Actualizar un curso según su id, si algunos datos vienen vacíos, no se actualizan.
+     * Con If-Match (el ETag de GET /courses/{id}) solo se aplica si nadie lo modificó antes: si no, 412.
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<CourseResponseDTO> updateCourse(@PathVariable Long id, @RequestBody CourseRequestDTO courseRequestDTO) {
-        return ResponseEntity.ok(coursesService.updateCourseById(id, courseRequestDTO));
+    public ResponseEntity<CourseResponseDTO> updateCourse(@PathVariable Long id,
+                                                          @RequestBody CourseRequestDTO courseRequestDTO,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CourseResponseDTO updated = coursesService.updateCourseById(id, courseRequestDTO, expectedVersion(id, ifMatch));
+        return withValidators(ResponseEntity.ok(), updated);
     }
 
 }
@@ -0,0 +1,38 @@
+package org.manudev.auth_catalog_kata.controllers;
+
+import lombok.NonNull;
+import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
+import org.manudev.auth_catalog_kata.dto.DashboardDTO;
+import org.manudev.auth_catalog_kata.services.interfaces.IDashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/me")
+public class MeController {
+
+    public MeController(IDashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    private final IDashboardService dashboardService;
+
+    /**
+     * Dashboard del usuario autenticado: página de cursos, módulos, progreso e insignias en una sola respuesta.
+     * Query params: los mismos que GET /courses (module, page, size)
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<@NonNull DashboardDTO> getDashboard(
+            @RequestParam(required = false) String module,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication
+    ) {
+        CourseRequestPageableDTO request = new CourseRequestPageableDTO(module, page, size);
+        return ResponseEntity.ok(dashboardService.getDashboard(UserProgressController.userId(authentication), request));
+    }
+}
@@ -0,0 +1,23 @@
+package org.manudev.auth_catalog_kata.controllers;
+
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Métricas en formato de texto de Prometheus. Solo accesible desde la propia máquina (ver SecurityConfig).
+ */
+@RestController
+public class MetricsController {
+
+    public MetricsController(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    private final MetricsRegistry metrics;
+
+    @GetMapping(value = "/metrics", produces = "text/plain;version=0.0.4;charset=utf-8")
+    public String metrics() {
+        return metrics.scrape();
+    }
+}
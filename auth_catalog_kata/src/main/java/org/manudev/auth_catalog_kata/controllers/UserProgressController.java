@@ -0,0 +1,57 @@
+package org.manudev.auth_catalog_kata.controllers;
+
+import lombok.NonNull;
+import org.manudev.auth_catalog_kata.dto.CourseCompletionDTO;
+import org.manudev.auth_catalog_kata.dto.UserProgressDTO;
+import org.manudev.auth_catalog_kata.services.interfaces.IUserProgressService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/progress")
+public class UserProgressController {
+
+    public UserProgressController(IUserProgressService userProgressService) {
+        this.userProgressService = userProgressService;
+    }
+
+    private final IUserProgressService userProgressService;
+
+    /**
+     * Progreso del usuario autenticado en todos sus cursos
+     */
+    @GetMapping
+    public ResponseEntity<@NonNull List<UserProgressDTO>> listProgress(Authentication authentication) {
+        return ResponseEntity.ok(userProgressService.listProgress(userId(authentication)));
+    }
+
+    /**
+     * Empezar un curso; si ya estaba empezado o completado devuelve el progreso existente
+     */
+    @PostMapping("/{courseId}/start")
+    public ResponseEntity<@NonNull UserProgressDTO> startCourse(@PathVariable Long courseId, Authentication authentication) {
+        return ResponseEntity.ok(userProgressService.startCourse(userId(authentication), courseId));
+    }
+
+    /**
+     * Completar un curso; repetir la llamada no cambia la fecha de finalización
+     */
+    @PostMapping("/{courseId}/complete")
+    public ResponseEntity<@NonNull CourseCompletionDTO> completeCourse(@PathVariable Long courseId, Authentication authentication) {
+        return ResponseEntity.ok(userProgressService.completeCourse(userId(authentication), courseId));
+    }
+
+    // El subject del JWT es el id del usuario
+    static Long userId(Authentication authentication) {
+        try {
+            return Long.valueOf(authentication.getName());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token subject");
+        }
+    }
+}
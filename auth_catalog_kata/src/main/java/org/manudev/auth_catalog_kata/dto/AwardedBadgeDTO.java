@@ -0,0 +1,11 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Insignia insertada de verdad por un grupo (no las que ON CONFLICT descartó).
+ * {@code module} es null si el curso ya no existe.
+ */
+public record AwardedBadgeDTO(
+        long userId,
+        String module
+) {
+}
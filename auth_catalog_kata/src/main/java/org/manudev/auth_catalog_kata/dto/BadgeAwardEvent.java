@@ -0,0 +1,17 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Curso completado pendiente de insignia; {@code outboxId} es la fila de badge_outbox que lo respalda.
+ */
+public record BadgeAwardEvent(
+        long outboxId,
+        long userId,
+        long courseId,
+        String courseTitle
+) {
+
+    // Una insignia por usuario y curso; el prefijo es el id del usuario
+    public String badgeCode() {
+        return userId + ":" + courseId;
+    }
+}
@@ -0,0 +1,16 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public record CacheStatsDTO(
+        long size,
+        long hits,
+        long misses,
+        double hitRatio,
+        long evictions
+) {
+
+    public static CacheStatsDTO from(CacheStats stats, long size) {
+        return new CacheStatsDTO(size, stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -0,0 +1,13 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Completados de un curso en un bucket de duración (ver CourseAnalytics.bucket).
+ */
+public interface CompletionBucketView {
+
+    Long getCourseId();
+
+    Integer getBucket();
+
+    Long getCompletions();
+}
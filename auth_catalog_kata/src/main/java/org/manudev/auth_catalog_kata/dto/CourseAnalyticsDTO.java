@@ -0,0 +1,16 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Analítica de un curso. Los percentiles son el límite superior del bucket de duración en el que caen
+ * (buckets que duplican su anchura: error de como mucho x2); null si nadie lo ha completado.
+ */
+public record CourseAnalyticsDTO(
+        Long courseId,
+        String module,
+        long started,
+        long completed,
+        double completionRate,
+        Long p50CompletionSeconds,
+        Long p90CompletionSeconds
+) {
+}
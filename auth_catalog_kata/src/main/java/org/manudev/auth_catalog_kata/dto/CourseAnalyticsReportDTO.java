@@ -0,0 +1,16 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Respuesta de GET /analytics/courses. {@code compactedAt} es la última reconstrucción completa;
+ * los cambios posteriores hechos por esta instancia ya están incluidos.
+ */
+public record CourseAnalyticsReportDTO(
+        List<CourseAnalyticsDTO> courses,
+        List<ModuleAnalyticsDTO> modules,
+        List<DailyLearnersDTO> dailyActiveLearners,
+        LocalDateTime compactedAt
+) {
+}
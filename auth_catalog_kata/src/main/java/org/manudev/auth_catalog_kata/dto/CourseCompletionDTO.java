@@ -0,0 +1,10 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Resultado de completar un curso; {@code newlyCompleted} es false si ya estaba completado.
+ */
+public record CourseCompletionDTO(
+        UserProgressDTO progress,
+        boolean newlyCompleted
+) {
+}
@@ -0,0 +1,12 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Resultado del upsert de completado; {@code outboxId} solo tiene valor si esta llamada completó el curso
+ * y {@code created} es true si además creó la fila (completado sin haberlo empezado).
+ */
+public interface CourseCompletionView extends UserProgressView {
+
+    Long getOutboxId();
+
+    Boolean getCreated();
+}
@@ -0,0 +1,72 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import org.manudev.auth_catalog_kata.entities.Course;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación por keyset.
+ * Se codifica en Base64 URL-safe como "id:{id}" o "updatedAt:{updatedAt}:{id}".
+ */
+public record CourseCursor(Sort sort, LocalDateTime updatedAt, long id) {
+
+    // Fecha anterior a cualquier curso, usada como punto de partida de la primera página
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public enum Sort {
+        ID("id"),
+        UPDATED_AT("updatedAt");
+
+        private final String param;
+
+        Sort(String param) {
+            this.param = param;
+        }
+
+        public static Sort fromParam(String value) {
+            if (value == null || value.isBlank()) return ID;
+            for (Sort sort : values()) {
+                if (sort.param.equalsIgnoreCase(value.trim())) return sort;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sort: " + value);
+        }
+    }
+
+    public static CourseCursor first(Sort sort) {
+        return new CourseCursor(sort, EPOCH, 0L);
+    }
+
+    public static CourseCursor after(Sort sort, Course last) {
+        return new CourseCursor(sort, last.getUpdatedAt(), last.getId());
+    }
+
+    public static CourseCursor after(Sort sort, CourseResponseDTO last) {
+        return new CourseCursor(sort, last.updatedAt(), last.id());
+    }
+
+    public static CourseCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            if (raw.startsWith("id:")) {
+                return new CourseCursor(Sort.ID, EPOCH, Long.parseLong(raw.substring(3)));
+            }
+            if (raw.startsWith("updatedAt:")) {
+                int lastColon = raw.lastIndexOf(':');
+                LocalDateTime updatedAt = LocalDateTime.parse(raw.substring("updatedAt:".length(), lastColon));
+                return new CourseCursor(Sort.UPDATED_AT, updatedAt, Long.parseLong(raw.substring(lastColon + 1)));
+            }
+        } catch (RuntimeException e) {
+            // cae al error genérico
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    public String encode() {
+        String raw = sort == Sort.ID ? "id:" + id : "updatedAt:" + updatedAt + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Formatos disponibles para la exportación del catálogo.
+ */
+public enum CourseExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String param;
+    private final String contentType;
+
+    CourseExportFormat(String param, String contentType) {
+        this.param = param;
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String fileName() {
+        return "courses." + param;
+    }
+
+    public static CourseExportFormat fromParam(String value) {
+        if (value == null || value.isBlank()) return NDJSON;
+        for (CourseExportFormat format : values()) {
+            if (format.param.equalsIgnoreCase(value.trim())) return format;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid export format: " + value);
+    }
+}
@@ -0,0 +1,9 @@
+package org.manudev.auth_catalog_kata.dto;
+
+public record CourseImportProgressDTO(
+        int batch,
+        int batchSize,
+        long imported,
+        long skipped
+) {
+}
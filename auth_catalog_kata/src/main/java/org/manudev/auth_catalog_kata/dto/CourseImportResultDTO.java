@@ -0,0 +1,11 @@
+package org.manudev.auth_catalog_kata.dto;
+
+public record CourseImportResultDTO(
+        boolean completed,
+        int batches,
+        long imported,
+        long skipped,
+        long elapsedMillis,
+        String error
+) {
+}
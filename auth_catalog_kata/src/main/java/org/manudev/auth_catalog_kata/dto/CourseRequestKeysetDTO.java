@@ -0,0 +1,22 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Petición de listado por keyset: {@code after} vacío pide la primera página.
+ */
+public record CourseRequestKeysetDTO(@Nullable String module, @Nullable String after, @Nullable String sort, Integer size) {
+
+    // Tope de una página: el servicio pide un elemento más y una sola petición no puede traer la tabla entera
+    public static final int MAX_SIZE = 100;
+
+    public int limit() {
+        return size == null || size <= 0 ? 20 : Math.min(size, MAX_SIZE);
+    }
+
+    public CourseCursor cursor() {
+        return after == null || after.isBlank()
+                ? CourseCursor.first(CourseCursor.Sort.fromParam(sort))
+                : CourseCursor.decode(after.trim());
+    }
+}
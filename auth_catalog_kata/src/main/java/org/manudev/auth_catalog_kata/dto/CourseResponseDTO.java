@@ -10,6 +10,7 @@ public record CourseResponseDTO (
         String durationHours,
         String badgeImage,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        Long version
 ){
 }
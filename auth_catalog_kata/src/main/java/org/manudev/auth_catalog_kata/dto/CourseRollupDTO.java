@@ -0,0 +1,7 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Filas de progreso y completados de un curso, calculados con un GROUP BY sobre user_progress.
+ */
+public record CourseRollupDTO(Long courseId, String module, Long started, Long completed) {
+}
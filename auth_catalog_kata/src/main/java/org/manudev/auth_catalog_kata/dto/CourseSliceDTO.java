@@ -0,0 +1,11 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.util.List;
+
+public record CourseSliceDTO(
+        List<CourseResponseDTO> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -0,0 +1,12 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lo mínimo para validar una petición condicional sobre un curso: versión y fecha de modificación.
+ */
+public record CourseVersionDTO(
+        Long version,
+        LocalDateTime updatedAt
+) {
+}
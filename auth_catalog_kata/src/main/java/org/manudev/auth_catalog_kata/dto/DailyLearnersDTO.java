@@ -0,0 +1,6 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDate;
+
+public record DailyLearnersDTO(LocalDate day, long learners) {
+}
@@ -0,0 +1,13 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Usuarios distintos que empezaron o completaron algún curso en un día.
+ */
+public interface DailyLearnersView {
+
+    LocalDate getDay();
+
+    Long getLearners();
+}
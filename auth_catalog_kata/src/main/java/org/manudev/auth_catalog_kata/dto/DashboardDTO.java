@@ -0,0 +1,13 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public record DashboardDTO(
+        Page<CourseResponseDTO> courses,
+        List<String> modules,
+        List<UserProgressDTO> progress,
+        long badgeCount
+) {
+}
@@ -0,0 +1,14 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@code module} es null en la clasificación global; {@code rebuiltAt}, la última reconstrucción completa.
+ */
+public record LeaderboardDTO(
+        String module,
+        List<LeaderboardEntryDTO> entries,
+        LocalDateTime rebuiltAt
+) {
+}
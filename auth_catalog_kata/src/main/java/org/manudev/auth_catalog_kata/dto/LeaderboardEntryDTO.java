@@ -0,0 +1,8 @@
+package org.manudev.auth_catalog_kata.dto;
+
+public record LeaderboardEntryDTO(
+        int rank,
+        long userId,
+        int badges
+) {
+}
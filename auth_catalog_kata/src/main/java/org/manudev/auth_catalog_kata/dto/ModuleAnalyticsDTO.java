@@ -0,0 +1,11 @@
+package org.manudev.auth_catalog_kata.dto;
+
+public record ModuleAnalyticsDTO(
+        String module,
+        long started,
+        long completed,
+        double completionRate,
+        Long p50CompletionSeconds,
+        Long p90CompletionSeconds
+) {
+}
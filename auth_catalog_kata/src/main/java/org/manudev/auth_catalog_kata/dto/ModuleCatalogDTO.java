@@ -0,0 +1,9 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.util.List;
+
+/**
+ * Lista ordenada de módulos y su ETag, derivado del contenido para que sea estable entre instancias.
+ */
+public record ModuleCatalogDTO(List<String> modules, String etag) {
+}
@@ -0,0 +1,4 @@
+package org.manudev.auth_catalog_kata.dto;
+
+public record ModuleCountDTO(String module, Long total) {
+}
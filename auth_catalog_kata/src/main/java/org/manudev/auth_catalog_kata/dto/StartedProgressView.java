@@ -0,0 +1,9 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Resultado del upsert de inicio; {@code created} es true si esta llamada creó la fila de progreso.
+ */
+public interface StartedProgressView extends UserProgressView {
+
+    Boolean getCreated();
+}
@@ -0,0 +1,22 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record UserActivityDTO(
+        List<UserProgressDTO> progress,
+        long badgeCount
+) {
+
+    public static UserActivityDTO from(List<? extends UserActivityView> rows) {
+        List<UserProgressDTO> progress = new ArrayList<>(rows.size());
+        long badgeCount = 0;
+        for (UserActivityView row : rows) {
+            badgeCount = row.getBadgeCount();
+            if (row.getCourseId() != null) {
+                progress.add(UserProgressDTO.from(row));
+            }
+        }
+        return new UserActivityDTO(List.copyOf(progress), badgeCount);
+    }
+}
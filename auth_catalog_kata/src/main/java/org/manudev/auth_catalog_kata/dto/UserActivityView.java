@@ -0,0 +1,10 @@
+package org.manudev.auth_catalog_kata.dto;
+
+/**
+ * Fila del resumen de actividad de un usuario: su progreso en un curso más el total de insignias,
+ * repetido en cada fila. Si el usuario no tiene progreso llega una única fila con courseId null.
+ */
+public interface UserActivityView extends UserProgressView {
+
+    Long getBadgeCount();
+}
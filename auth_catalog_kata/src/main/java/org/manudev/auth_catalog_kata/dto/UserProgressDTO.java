@@ -0,0 +1,17 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDateTime;
+
+public record UserProgressDTO(
+        Long courseId,
+        String courseTitle,
+        String status,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt
+) {
+
+    public static UserProgressDTO from(UserProgressView view) {
+        return new UserProgressDTO(view.getCourseId(), view.getCourseTitle(), view.getStatus(),
+                view.getStartedAt(), view.getCompletedAt());
+    }
+}
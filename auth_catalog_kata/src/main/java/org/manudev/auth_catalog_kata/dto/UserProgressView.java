@@ -0,0 +1,20 @@
+package org.manudev.auth_catalog_kata.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una fila de user_progress devuelta por los upserts (RETURNING),
+ * sin cargar las entidades User ni Course.
+ */
+public interface UserProgressView {
+
+    Long getCourseId();
+
+    String getCourseTitle();
+
+    String getStatus();
+
+    LocalDateTime getStartedAt();
+
+    LocalDateTime getCompletedAt();
+}
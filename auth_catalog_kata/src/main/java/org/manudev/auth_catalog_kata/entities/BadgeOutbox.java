@@ -0,0 +1,39 @@
+package org.manudev.auth_catalog_kata.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Insignia pendiente de otorgar. Se escribe en la misma sentencia que completa el curso
+ * y se borra cuando la insignia queda guardada; lo que quede aquí se reintenta tras un reinicio.
+ */
+@Entity
+@Table(name = "badge_outbox", indexes = {
+        @Index(name = "idx_badge_outbox_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BadgeOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "course_title")
+    private String courseTitle;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
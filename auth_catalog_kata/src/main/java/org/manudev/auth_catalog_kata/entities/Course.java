@@ -2,11 +2,16 @@ package org.manudev.auth_catalog_kata.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_updated_at_id", columnList = "updated_at, id")
+})
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,4 +49,10 @@ public class Course {
     @Column(name = "updated_at", nullable = false)
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
-}
\ No newline at end of file
+
+
+    // Control de concurrencia optimista; el default rellena las filas existentes al añadir la columna
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+}
@@ -40,7 +40,8 @@ public class User {
         LocalDateTime now = LocalDateTime.now();
         if (createdAt == null) createdAt = now;
     }
-    @ManyToMany(fetch = FetchType.EAGER)
+    // LAZY: quien necesita los roles los carga con IUsersRepository.findWithRolesByEmail
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "user_progress")
+@Table(name = "user_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_progress_user_course", columnNames = {"user_id", "course_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,142 @@
+package org.manudev.auth_catalog_kata.events;
+
+import jakarta.annotation.PreDestroy;
+import org.manudev.auth_catalog_kata.analytics.BadgeLeaderboard;
+import org.manudev.auth_catalog_kata.dto.AwardedBadgeDTO;
+import org.manudev.auth_catalog_kata.dto.BadgeAwardEvent;
+import org.manudev.auth_catalog_kata.repository.BadgeBatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Otorga las insignias de los cursos completados fuera de la petición.
+ *
+ * Los eventos entran en una cola acotada y un único hilo los escribe en grupos de hasta
+ * {@code batchSize} o cada {@code flushInterval}, lo que ocurra antes. Si la cola está llena
+ * el evento no se encola: su fila del outbox sigue ahí y el relay lo recoge más tarde,
+ * así una ráfaga nunca bloquea ni hace fallar la petición que completa el curso.
+ * El relay lee el outbox al arrancar y cada {@code relayInterval}: entrega al menos una vez,
+ * y ON CONFLICT (code) evita insignias duplicadas. Las insignias que llegan a insertarse
+ * suman en la clasificación (BadgeLeaderboard).
+ */
+@Component
+public class BadgeAwardPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(BadgeAwardPipeline.class);
+
+    public BadgeAwardPipeline(BadgeBatchRepository badgeBatchRepository,
+                              BadgeLeaderboard leaderboard,
+                              @Value("${app.badges.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.badges.batch-size:100}") int batchSize,
+                              @Value("${app.badges.flush-interval:200ms}") Duration flushInterval,
+                              @Value("${app.badges.relay-interval:30s}") Duration relayInterval) {
+        this.badgeBatchRepository = badgeBatchRepository;
+        this.leaderboard = leaderboard;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.relayInterval = relayInterval;
+    }
+
+    private final BadgeBatchRepository badgeBatchRepository;
+    private final BadgeLeaderboard leaderboard;
+    private final BlockingQueue<BadgeAwardEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration relayInterval;
+    private volatile Thread writer;
+
+    /**
+     * Encola un evento sin bloquear; devuelve false si la cola está llena (lo entregará el relay).
+     */
+    public boolean submit(BadgeAwardEvent event) {
+        return queue.offer(event);
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer != null) return;
+        writer = new Thread(this::run, "badge-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (writer == null) return;
+        writer.interrupt();
+        writer = null;
+    }
+
+    private void run() {
+        long nextRelay = System.nanoTime();
+        List<BadgeAwardEvent> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (System.nanoTime() - nextRelay >= 0) {
+                    relay();
+                    nextRelay = System.nanoTime() + relayInterval.toNanos();
+                }
+                BadgeAwardEvent first = queue.poll(Math.max(0, nextRelay - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    BadgeAwardEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write(List<BadgeAwardEvent> batch) {
+        List<AwardedBadgeDTO> awarded;
+        try {
+            awarded = badgeBatchRepository.awardBatch(batch);
+        } catch (RuntimeException e) {
+            // Las filas siguen en el outbox: el próximo relay las reintenta
+            log.warn("Could not award {} badges, they will be retried from the outbox", batch.size(), e);
+            return;
+        }
+        leaderboard.badgesAwarded(awarded);
+    }
+
+    // Solo se releen filas más antiguas que el intervalo: las recientes pueden estar aún en la cola
+    private void relay() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) return;
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(relayInterval);
+            for (BadgeAwardEvent event : badgeBatchRepository.findPending(before, capacity)) {
+                if (!queue.offer(event)) break;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read the badge outbox", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.manudev.auth_catalog_kata.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de cada pool de Hikari: espera para obtener conexión, tiempo de uso,
+ * timeouts y el estado del pool (activas, libres, hilos esperando).
+ */
+class HikariPoolMetrics implements MetricsTrackerFactory {
+
+    HikariPoolMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    private final MetricsRegistry metrics;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+        metrics.gauge("hikari_connections_active", "Connections in use", stats::getActiveConnections, "pool", poolName);
+        metrics.gauge("hikari_connections_idle", "Idle connections", stats::getIdleConnections, "pool", poolName);
+        metrics.gauge("hikari_connections_pending", "Threads waiting for a connection", stats::getPendingThreads, "pool", poolName);
+        metrics.gauge("hikari_connections_max", "Maximum pool size", stats::getMaxConnections, "pool", poolName);
+
+        LatencyHistogram acquire = metrics.timer("hikari_connection_acquire_seconds",
+                "Time spent waiting for a pooled connection", "pool", poolName);
+        LatencyHistogram usage = metrics.timer("hikari_connection_usage_seconds",
+                "Time a connection is held before returning to the pool", "pool", poolName);
+        LongAdder timeouts = metrics.counter("hikari_connection_timeouts",
+                "Connection requests that timed out", "pool", poolName);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
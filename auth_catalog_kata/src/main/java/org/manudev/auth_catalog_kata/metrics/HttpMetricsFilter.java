@@ -0,0 +1,87 @@
+package org.manudev.auth_catalog_kata.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencia de cada endpoint por método, patrón de la ruta (/courses/{id}, no el id concreto) y estado.
+ * Va el primero de la cadena para incluir seguridad y JwtFilter; las respuestas asíncronas
+ * (exportación) se registran al completarse.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HttpMetricsFilter extends OncePerRequestFilter {
+
+    public HttpMetricsFilter(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    private final MetricsRegistry metrics;
+    // Serie de cada (método, patrón, estado), resuelta en su primera petición: el camino caliente no compone etiquetas
+    private final Map<RouteKey, LatencyHistogram> byRoute = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RouteKey key = new RouteKey(request.getMethod(), pattern != null ? pattern.toString() : "UNMATCHED", response.getStatus());
+        LatencyHistogram timer = byRoute.get(key);
+        if (timer == null) {
+            timer = byRoute.computeIfAbsent(key, this::register);
+        }
+        timer.record(System.nanoTime() - start);
+    }
+
+    private LatencyHistogram register(RouteKey key) {
+        return metrics.timer("http_server_requests_seconds", "HTTP request latency by endpoint",
+                "method", key.method(),
+                "uri", key.uri(),
+                "status", Integer.toString(key.status()));
+    }
+
+    private record RouteKey(String method, String uri, int status) {
+    }
+}
@@ -0,0 +1,80 @@
+package org.manudev.auth_catalog_kata.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Histograma de latencias con buckets fijos (en segundos, como los espera Prometheus).
+ * Registrar es sumar en dos LongAdder: sin locks ni reservas de memoria en el camino caliente.
+ */
+public final class LatencyHistogram {
+
+    // Límites superiores de cada bucket: de 100µs a 10s, más +Inf implícito
+    static final double[] BOUNDS_SECONDS = {
+            0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_SECONDS[i] * 1_000_000_000L);
+        }
+    }
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    // El último bucket es +Inf; los valores se acumulan al exportar
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sumNanos.add(Math.max(nanos, 0));
+    }
+
+    public void record(long amount, TimeUnit unit) {
+        record(unit.toNanos(amount));
+    }
+
+    public <T> T time(Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Conteos acumulados por bucket (el último es el total) y suma en segundos.
+     */
+    Snapshot snapshot() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return new Snapshot(cumulative, sumNanos.sum() / 1e9);
+    }
+
+    public long count() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    record Snapshot(long[] cumulativeCounts, double sumSeconds) {
+    }
+}
@@ -0,0 +1,141 @@
+package org.manudev.auth_catalog_kata.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registro de métricas de la aplicación, exportadas en formato de texto de Prometheus (GET /metrics).
+ * Cada serie se crea una vez; después registrar un valor no toma locks.
+ * Los llamadores del camino caliente guardan la referencia al histograma o contador en lugar de buscarlo cada vez.
+ */
+@Component
+public class MetricsRegistry {
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * Histograma de latencias; {@code labels} son pares nombre, valor.
+     */
+    public LatencyHistogram timer(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.HISTOGRAM).series(labels, LatencyHistogram::new);
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, Type.COUNTER).series(labels, LongAdder::new);
+    }
+
+    /**
+     * Valor que se lee en cada exportación (tamaños de pool, colas...).
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(Family.renderLabels(labels), value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        new TreeMap<>(families).values().forEach(family -> family.write(out));
+        return out.toString();
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        }
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type);
+        }
+        return family;
+    }
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    /**
+     * Todas las series de una métrica, indexadas por sus etiquetas ya renderizadas ({@code a="1",b="2"}).
+     */
+    private static final class Family {
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        final String name;
+        final String help;
+        final Type type;
+        final Map<String, Object> series = new ConcurrentHashMap<>();
+
+        Object series(String[] labels, Supplier<Object> factory) {
+            String key = renderLabels(labels);
+            Object value = series.get(key);
+            return value != null ? value : series.computeIfAbsent(key, k -> factory.get());
+        }
+
+        void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type.name().toLowerCase()).append('\n');
+            series.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                    .forEach(entry -> writeSeries(out, entry.getKey(), entry.getValue()));
+        }
+
+        private void writeSeries(StringBuilder out, String labels, Object value) {
+            switch (type) {
+                case COUNTER -> sample(out, name + "_total", labels, ((LongAdder) value).sum());
+                case GAUGE -> sample(out, name, labels, ((DoubleSupplier) value).getAsDouble());
+                case HISTOGRAM -> {
+                    LatencyHistogram.Snapshot snapshot = ((LatencyHistogram) value).snapshot();
+                    long[] counts = snapshot.cumulativeCounts();
+                    String separator = labels.isEmpty() ? "" : ",";
+                    for (int i = 0; i < LatencyHistogram.BOUNDS_SECONDS.length; i++) {
+                        sample(out, name + "_bucket",
+                                labels + separator + "le=\"" + LatencyHistogram.BOUNDS_SECONDS[i] + "\"", counts[i]);
+                    }
+                    long total = counts[counts.length - 1];
+                    sample(out, name + "_bucket", labels + separator + "le=\"+Inf\"", total);
+                    sample(out, name + "_sum", labels, snapshot.sumSeconds());
+                    sample(out, name + "_count", labels, total);
+                }
+            }
+        }
+
+        private static void sample(StringBuilder out, String name, String labels, double value) {
+            out.append(name);
+            if (!labels.isEmpty()) {
+                out.append('{').append(labels).append('}');
+            }
+            out.append(' ');
+            if (value == Math.rint(value) && !Double.isInfinite(value)) {
+                out.append((long) value);
+            } else {
+                out.append(value);
+            }
+            out.append('\n');
+        }
+
+        static String renderLabels(String[] labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("Labels must be name/value pairs");
+            }
+            StringBuilder rendered = new StringBuilder();
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) rendered.append(',');
+                rendered.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            return rendered.toString();
+        }
+
+        private static String escape(String value) {
+            if (value == null) return "";
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
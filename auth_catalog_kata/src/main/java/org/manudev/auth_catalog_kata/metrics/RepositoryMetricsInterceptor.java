@@ -0,0 +1,76 @@
+package org.manudev.auth_catalog_kata.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Latencia y filas devueltas por cada método de los repositorios de Spring Data.
+ * Las filas se cuentan sobre el resultado (listas, páginas, Optional, entidades); los métodos
+ * que devuelven un número o nada no cuentan filas.
+ */
+class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    RepositoryMetricsInterceptor(MetricsRegistry metrics, String repository) {
+        this.metrics = metrics;
+        this.repository = repository;
+    }
+
+    private final MetricsRegistry metrics;
+    private final String repository;
+    // Series de cada método, resueltas en su primera llamada
+    private final Map<Method, MethodMetrics> byMethod = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMetrics methodMetrics = byMethod.get(invocation.getMethod());
+        if (methodMetrics == null) {
+            methodMetrics = byMethod.computeIfAbsent(invocation.getMethod(), this::register);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodMetrics.success().record(System.nanoTime() - start);
+            long rows = rows(result);
+            if (rows >= 0) {
+                methodMetrics.rows().add(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            methodMetrics.error().record(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private MethodMetrics register(Method method) {
+        String name = method.getName();
+        String help = "Spring Data repository method latency";
+        return new MethodMetrics(
+                metrics.timer("repository_query_seconds", help, "repository", repository, "method", name, "outcome", "success"),
+                metrics.timer("repository_query_seconds", help, "repository", repository, "method", name, "outcome", "error"),
+                metrics.counter("repository_rows", "Rows returned by repository methods",
+                        "repository", repository, "method", name));
+    }
+
+    // -1 si el resultado no son filas (void, count, exists, Stream aún sin consumir)
+    static long rows(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean || result instanceof Stream<?>) {
+            return -1;
+        }
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Slice<?> slice) return slice.getNumberOfElements();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        return 1;
+    }
+
+    private record MethodMetrics(LatencyHistogram success, LatencyHistogram error, LongAdder rows) {
+    }
+}
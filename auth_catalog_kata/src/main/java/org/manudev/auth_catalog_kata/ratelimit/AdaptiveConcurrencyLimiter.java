@@ -0,0 +1,89 @@
+package org.manudev.auth_catalog_kata.ratelimit;
+
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Límite de peticiones en curso que se ajusta a la latencia observada (AIMD).
+ * Una respuesta más lenta que el umbral reduce el límite multiplicativamente, como mucho una vez por ventana:
+ * las peticiones que ya estaban en curso al reducirlo no vuelven a reducirlo. Las rápidas lo recuperan
+ * de uno en uno. Lo que supera el límite se rechaza de inmediato en lugar de hacer cola.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public AdaptiveConcurrencyLimiter(MetricsRegistry metrics,
+                                      @Value("${app.rate-limit.concurrency.initial:200}") int initialLimit,
+                                      @Value("${app.rate-limit.concurrency.min:10}") int minLimit,
+                                      @Value("${app.rate-limit.concurrency.max:1000}") int maxLimit,
+                                      @Value("${app.rate-limit.concurrency.latency-threshold:500ms}") Duration latencyThreshold,
+                                      @Value("${app.rate-limit.concurrency.backoff:0.9}") double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.thresholdNanos = latencyThreshold.toNanos();
+        this.backoff = backoff;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(initialLimit, maxLimit)));
+        metrics.gauge("concurrency_limit", "Current adaptive concurrency limit", limit::get);
+        metrics.gauge("concurrency_in_flight", "Requests in flight under the concurrency limit", inFlight::get);
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long thresholdNanos;
+    private final double backoff;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Respuestas rápidas desde el último aumento del límite
+    private final AtomicLong fastSinceIncrease = new AtomicLong();
+    // Instante (nanoTime) de la última reducción; Long.MIN_VALUE si aún no hubo ninguna
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(Long.MIN_VALUE);
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Libera el hueco de una petición que empezó en {@code startNanos} (System.nanoTime).
+     * {@code latencyNanos < 0} si la muestra no es representativa (respuestas asíncronas).
+     */
+    public void release(long startNanos, long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos < 0) {
+            return;
+        }
+        if (latencyNanos > thresholdNanos) {
+            // Solo una muestra que empezó después de la última reducción refleja el límite actual;
+            // sin esto un pico lento con cientos de peticiones en curso lo llevaría al mínimo
+            long last = lastDecreaseNanos.get();
+            if ((last == Long.MIN_VALUE || startNanos - last >= 0)
+                    && lastDecreaseNanos.compareAndSet(last, startNanos + latencyNanos)) {
+                fastSinceIncrease.set(0);
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoff)));
+            }
+        } else {
+            // Un aumento por cada "límite" respuestas rápidas: crece en uno por ventana completa
+            int current = limit.get();
+            if (fastSinceIncrease.incrementAndGet() >= current && current < maxLimit) {
+                fastSinceIncrease.set(0);
+                limit.compareAndSet(current, current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,92 @@
+package org.manudev.auth_catalog_kata.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita la tasa de peticiones por IP (429) y descarta carga cuando la latencia se dispara (503) en las rutas configuradas.
+ * Va en la cadena de seguridad antes de JwtFilter: un cliente que manda tokens inválidos agota su cupo
+ * sin que cada petición pague la validación. Los límites por usuario y endpoint van en UserRateLimitFilter.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           AdaptiveConcurrencyLimiter concurrencyLimiter,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.paths:/auth/,/courses}") List<String> paths) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.enabled = enabled;
+        this.paths = paths;
+    }
+
+    private final RateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final boolean enabled;
+    private final List<String> paths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !isLimited(request, paths);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquireClient(request.getRemoteAddr(), isAuthRoute(request));
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos), "Too many requests, retry later");
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Una respuesta asíncrona (exportación) libera su hueco al devolver el hilo; su duración no es una muestra válida
+            concurrencyLimiter.release(start, request.isAsyncStarted() ? -1 : System.nanoTime() - start);
+        }
+    }
+
+    static boolean isLimited(HttpServletRequest request, List<String> paths) {
+        String path = path(request);
+        return paths.stream().anyMatch(path::startsWith);
+    }
+
+    static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    static boolean isAuthRoute(HttpServletRequest request) {
+        return path(request).startsWith("/auth/");
+    }
+
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    // Respuesta directa: un sendError pasaría por /error y la seguridad lo convertiría en 403
+    static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"error\":\"" + message + "\"}");
+    }
+}
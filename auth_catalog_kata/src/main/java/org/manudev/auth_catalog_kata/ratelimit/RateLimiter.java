@@ -0,0 +1,133 @@
+package org.manudev.auth_catalog_kata.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Límites de peticiones por IP, por usuario (subject del JWT) y por endpoint.
+ * Las rutas /auth tienen su propio límite por IP, más bajo: cada login cuesta un BCrypt.
+ * El límite por IP se aplica antes de validar el token (RateLimitFilter); los de usuario y endpoint,
+ * con el usuario ya resuelto (UserRateLimitFilter).
+ * Los cubos viven en una cache acotada, así una avalancha de IPs distintas no agota la memoria.
+ */
+@Component
+public class RateLimiter {
+
+    @Autowired
+    public RateLimiter(MetricsRegistry metrics,
+                       @Value("${app.rate-limit.ip.rate:50}") double ipRate,
+                       @Value("${app.rate-limit.ip.burst:100}") int ipBurst,
+                       @Value("${app.rate-limit.auth-ip.rate:1}") double authIpRate,
+                       @Value("${app.rate-limit.auth-ip.burst:10}") int authIpBurst,
+                       @Value("${app.rate-limit.user.rate:50}") double userRate,
+                       @Value("${app.rate-limit.user.burst:100}") int userBurst,
+                       @Value("${app.rate-limit.endpoint.rate:2000}") double endpointRate,
+                       @Value("${app.rate-limit.endpoint.burst:4000}") int endpointBurst,
+                       @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                       @Value("${app.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        this(metrics, new Limit("ip", ipRate, ipBurst), new Limit("auth-ip", authIpRate, authIpBurst),
+                new Limit("user", userRate, userBurst), new Limit("endpoint", endpointRate, endpointBurst),
+                maxKeys, idleExpiry, System::nanoTime);
+    }
+
+    // Visible en el paquete para las pruebas (reloj controlado)
+    RateLimiter(MetricsRegistry metrics, Limit ip, Limit authIp, Limit user, Limit endpoint,
+                long maxKeys, Duration idleExpiry, LongSupplier clock) {
+        this.ip = ip;
+        this.authIp = authIp;
+        this.user = user;
+        this.endpoint = endpoint;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        String help = "Requests rejected by a rate limit";
+        this.ipRejected = metrics.counter("rate_limit_rejected", help, "limit", ip.name());
+        this.authIpRejected = metrics.counter("rate_limit_rejected", help, "limit", authIp.name());
+        this.userRejected = metrics.counter("rate_limit_rejected", help, "limit", user.name());
+        this.endpointRejected = metrics.counter("rate_limit_rejected", help, "limit", endpoint.name());
+    }
+
+    private final Limit ip;
+    private final Limit authIp;
+    private final Limit user;
+    private final Limit endpoint;
+    private final LongSupplier clock;
+    private final Cache<String, TokenBucket> buckets;
+    private final LongAdder ipRejected;
+    private final LongAdder authIpRejected;
+    private final LongAdder userRejected;
+    private final LongAdder endpointRejected;
+
+    /**
+     * Límite por IP (o por IP en /auth), antes de validar el token. Devuelve 0 si se admite
+     * o los nanosegundos hasta poder reintentar.
+     */
+    public long tryAcquireClient(String clientIp, boolean authRoute) {
+        long wait = bucket(authRoute ? authIp : ip, clientIp).tryConsume(clock.getAsLong());
+        if (wait > 0) {
+            (authRoute ? authIpRejected : ipRejected).increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Límites por usuario y por endpoint, con el usuario ya autenticado. Devuelve 0 si se admite
+     * o los nanosegundos hasta poder reintentar.
+     * Si un límite rechaza la petición se devuelven los tokens ya consumidos, también el de su IP
+     * en {@link #tryAcquireClient}: una petición rechazada no gasta el cupo de su IP ni el de su usuario.
+     *
+     * @param subject usuario autenticado o null
+     * @param endpoint método y ruta normalizada ("GET /courses/{id}")
+     */
+    public long tryAcquireRequest(String clientIp, boolean authRoute, String subject, String endpoint) {
+        long now = clock.getAsLong();
+        TokenBucket userBucket = null;
+        if (subject != null) {
+            userBucket = bucket(user, subject);
+            long wait = userBucket.tryConsume(now);
+            if (wait > 0) {
+                refundClient(clientIp, authRoute);
+                userRejected.increment();
+                return wait;
+            }
+        }
+        long wait = bucket(this.endpoint, endpoint).tryConsume(now);
+        if (wait > 0) {
+            refundClient(clientIp, authRoute);
+            if (userBucket != null) {
+                userBucket.refund();
+            }
+            endpointRejected.increment();
+        }
+        return wait;
+    }
+
+    // Solo si el cubo sigue en la cache: en uno recién creado no hay token que devolver
+    private void refundClient(String clientIp, boolean authRoute) {
+        TokenBucket ipBucket = buckets.getIfPresent(key(authRoute ? authIp : ip, clientIp));
+        if (ipBucket != null) {
+            ipBucket.refund();
+        }
+    }
+
+    private TokenBucket bucket(Limit limit, String key) {
+        return buckets.get(key(limit, key), k -> new TokenBucket(limit.rate(), limit.burst()));
+    }
+
+    private static String key(Limit limit, String key) {
+        return limit.name() + ":" + key;
+    }
+
+    record Limit(String name, double rate, int burst) {
+    }
+}
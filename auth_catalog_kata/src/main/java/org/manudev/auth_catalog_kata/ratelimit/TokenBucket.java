@@ -0,0 +1,47 @@
+package org.manudev.auth_catalog_kata.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de tokens sin locks: en lugar de contar tokens guarda el instante en que el cubo volvería a estar lleno
+ * (GCRA). Consumir es un compareAndSet sobre un único long.
+ */
+public final class TokenBucket {
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    // Tiempo que tarda en reponerse un token y margen que admite la ráfaga
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Consume un token. Devuelve 0 si se admite o los nanosegundos que faltan para el siguiente token.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devuelve un token consumido con éxito, cuando otro límite rechaza la misma petición.
+     */
+    public void refund() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+}
@@ -0,0 +1,70 @@
+package org.manudev.auth_catalog_kata.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Límites por usuario (subject del JWT) y por endpoint (429) en las rutas configuradas.
+ * Va en la cadena de seguridad justo después de JwtFilter para conocer el usuario sin llegar a los controladores;
+ * el límite por IP y el descarte de carga ya se aplicaron antes, en RateLimitFilter.
+ */
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    public UserRateLimitFilter(RateLimiter rateLimiter,
+                               @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${app.rate-limit.paths:/auth/,/courses}") List<String> paths) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.paths = paths;
+    }
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final List<String> paths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !RateLimitFilter.isLimited(request, paths);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Los ids no cuentan como endpoints distintos: /courses/7 y /courses/8 comparten cubo
+        String endpoint = request.getMethod() + " "
+                + NUMERIC_SEGMENT.matcher(RateLimitFilter.path(request)).replaceAll("/{id}");
+
+        long waitNanos = rateLimiter.tryAcquireRequest(request.getRemoteAddr(), RateLimitFilter.isAuthRoute(request),
+                subject(), endpoint);
+        if (waitNanos > 0) {
+            RateLimitFilter.reject(response, HttpStatus.TOO_MANY_REQUESTS, RateLimitFilter.retryAfterSeconds(waitNanos),
+                    "Too many requests, retry later");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String subject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,123 @@
+package org.manudev.auth_catalog_kata.repository;
+
+import org.manudev.auth_catalog_kata.dto.AwardedBadgeDTO;
+import org.manudev.auth_catalog_kata.dto.BadgeAwardEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Escritura agrupada de insignias con JDBC.
+ * Cada grupo inserta las insignias y borra sus filas del outbox en una sola transacción;
+ * ON CONFLICT (code) hace que un evento entregado dos veces no duplique la insignia.
+ */
+@Repository
+public class BadgeBatchRepository {
+
+    // Un único INSERT por grupo; RETURNING solo devuelve las filas que ON CONFLICT no descartó
+    private static final String INSERT_BADGES =
+            "WITH inserted AS (" +
+            "INSERT INTO badges (code, title, description, image_url, created_at) " +
+            "SELECT u.code, u.title, u.description, ?, ? FROM unnest(?::text[], ?::text[], ?::text[]) AS u(code, title, description) " +
+            "ON CONFLICT (code) DO NOTHING RETURNING code) " +
+            "SELECT CAST(split_part(i.code, ':', 1) AS bigint), c.module FROM inserted i " +
+            "LEFT JOIN courses c ON c.id = CAST(split_part(i.code, ':', 2) AS bigint)";
+
+    private static final String DELETE_OUTBOX = "DELETE FROM badge_outbox WHERE id = ?";
+
+    private static final String SELECT_PENDING =
+            "SELECT id, user_id, course_id, course_title FROM badge_outbox WHERE created_at < ? ORDER BY id LIMIT ?";
+
+    // Códigos "usuario:curso" y los antiguos con solo el usuario; cualquier otro formato no es de un usuario
+    private static final String COUNT_BY_USER_AND_MODULE =
+            "SELECT CAST(split_part(b.code, ':', 1) AS bigint), c.module, COUNT(*) FROM badges b " +
+            "LEFT JOIN courses c ON c.id = CAST(NULLIF(split_part(b.code, ':', 2), '') AS bigint) " +
+            "WHERE b.code ~ '^[0-9]+(:[0-9]+)?$' GROUP BY 1, 2";
+
+    public BadgeBatchRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${app.badges.image-url:https://cdn-icons-png.flaticon.com/512/1534/1534225.png}") String imageUrl,
+                                @Value("${app.leaderboard.fetch-size:10000}") int countsFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageUrl = imageUrl;
+        this.countsFetchSize = countsFetchSize;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String imageUrl;
+    private final int countsFetchSize;
+
+    /**
+     * @return las insignias que se insertaron, con el módulo de su curso
+     */
+    @Transactional
+    public List<AwardedBadgeDTO> awardBatch(List<BadgeAwardEvent> events) {
+        String[] codes = new String[events.size()];
+        String[] titles = new String[events.size()];
+        String[] descriptions = new String[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            BadgeAwardEvent event = events.get(i);
+            codes[i] = event.badgeCode();
+            titles[i] = "Completed " + event.courseTitle();
+            descriptions[i] = "User " + event.userId() + " has completed the course";
+        }
+        List<AwardedBadgeDTO> awarded = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_BADGES);
+            ps.setString(1, imageUrl);
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(3, connection.createArrayOf("text", codes));
+            ps.setArray(4, connection.createArrayOf("text", titles));
+            ps.setArray(5, connection.createArrayOf("text", descriptions));
+            return ps;
+        }, (rs, i) -> new AwardedBadgeDTO(rs.getLong(1), rs.getString(2)));
+        jdbcTemplate.batchUpdate(DELETE_OUTBOX, events, events.size(),
+                (ps, event) -> ps.setLong(1, event.outboxId()));
+        return awarded;
+    }
+
+    /**
+     * Filas del outbox creadas antes de {@code before}: las más recientes pueden estar todavía en la cola.
+     * Siempre contra el primario (transacción que no es de solo lectura): una réplica con retraso
+     * devolvería filas ya entregadas y borradas, y no vería las recién encoladas.
+     */
+    @Transactional
+    public List<BadgeAwardEvent> findPending(LocalDateTime before, int limit) {
+        return jdbcTemplate.query(SELECT_PENDING,
+                (rs, i) -> new BadgeAwardEvent(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4)),
+                Timestamp.valueOf(before), limit);
+    }
+
+    /**
+     * Insignias por usuario y módulo ({@code module} null en los códigos antiguos o si el curso ya no existe).
+     * Se recorren fila a fila con cursor, como la exportación del catálogo: nunca hay una lista por usuario en memoria.
+     * Contra el primario, como CourseBatchRepository#streamAllFromPrimary: BadgeLeaderboard reconstruye desde aquí
+     * y lo que faltase en una réplica con retraso no se recuperaría hasta la siguiente reconstrucción.
+     *
+     * @return número de filas entregadas
+     */
+    @Transactional
+    public long streamCountsByUserAndModule(BadgeCounts consumer) {
+        long[] rows = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COUNT_BY_USER_AND_MODULE, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(countsFetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(rs.getLong(1), rs.getString(2), rs.getInt(3));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    @FunctionalInterface
+    public interface BadgeCounts {
+        void accept(long userId, String module, int badges);
+    }
+}
@@ -0,0 +1,110 @@
+package org.manudev.auth_catalog_kata.repository;
+
+import org.manudev.auth_catalog_kata.dto.CourseRequestDTO;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Operaciones masivas sobre el catálogo con JDBC, sin pasar por el contexto de persistencia.
+ * Course usa GenerationType.IDENTITY, lo que impide el batching de Hibernate; aquí cada lote
+ * es un único executeBatch (con reWriteBatchedInserts el driver lo convierte en INSERTs multi-fila).
+ */
+@Repository
+public class CourseBatchRepository {
+
+    private static final String INSERT_COURSE =
+            "INSERT INTO courses (title, description, module, duration_hours, badge_image, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER_ID =
+            "SELECT id, title, description, module, duration_hours, badge_image, created_at, updated_at, version " +
+            "FROM courses WHERE id > ? ORDER BY id";
+
+    public CourseBatchRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.courses.export.fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int exportFetchSize;
+
+    /**
+     * Inserta un lote en su propia transacción; los lotes ya confirmados se conservan si uno posterior falla.
+     */
+    @Transactional
+    public int insertBatch(List<CourseRequestDTO> courses) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_COURSE, courses, courses.size(), (ps, course) -> {
+            ps.setString(1, course.title());
+            ps.setString(2, course.description());
+            ps.setString(3, course.module());
+            ps.setString(4, course.duration());
+            ps.setString(5, course.image());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+        return courses.size();
+    }
+
+    /**
+     * Recorre los cursos con id mayor que {@code afterId} en orden de id, fila a fila.
+     * El driver de Postgres solo respeta el fetch size con autocommit desactivado, de ahí la transacción:
+     * así el cursor trae bloques de {@code exportFetchSize} filas en lugar de la tabla entera.
+     *
+     * @return número de cursos entregados al consumidor
+     */
+    @Transactional(readOnly = true)
+    public long streamAfter(long afterId, Consumer<CourseResponseDTO> consumer) {
+        return stream(afterId, consumer);
+    }
+
+    /**
+     * Igual que {@link #streamAfter} pero siempre contra el primario: la transacción no es de solo lectura,
+     * así ReadReplicaRoutingDataSource no la envía a la réplica. Para CourseCatalogIndex, que no puede
+     * partir de una réplica con retraso: lo que falte ahí no lo recupera hasta la siguiente reconstrucción.
+     */
+    @Transactional
+    public long streamAllFromPrimary(Consumer<CourseResponseDTO> consumer) {
+        return stream(0L, consumer);
+    }
+
+    private long stream(long afterId, Consumer<CourseResponseDTO> consumer) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_AFTER_ID, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            ps.setLong(1, afterId);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(new CourseResponseDTO(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getString(6),
+                    toLocalDateTime(rs.getTimestamp(7)),
+                    toLocalDateTime(rs.getTimestamp(8)),
+                    rs.getLong(9)
+            ));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
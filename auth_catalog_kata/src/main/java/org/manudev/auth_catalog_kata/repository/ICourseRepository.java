@@ -1,21 +1,77 @@
 package org.manudev.auth_catalog_kata.repository;
 
+import org.manudev.auth_catalog_kata.dto.CourseVersionDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCountDTO;
 import org.manudev.auth_catalog_kata.entities.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Repository
 public interface ICourseRepository extends JpaRepository<Course, Long> {
 
-    @Query(value = "SELECT DISTINCT module FROM courses", nativeQuery = true)
-    List<String> findDistinctModulesNative();
+    // Las consultas declaradas aquí no heredan la transacción de SimpleJpaRepository: sin readOnly explícito
+    // no irían a la réplica y Hibernate mantendría el dirty checking de las entidades leídas
 
-    Page<Course> findByModuleContainingIgnoreCase(String module, Pageable pageable);
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.manudev.auth_catalog_kata.dto.ModuleCountDTO(c.module, COUNT(c)) " +
+            "FROM Course c WHERE c.module IS NOT NULL GROUP BY c.module")
+    List<ModuleCountDTO> countCoursesByModule();
 
+    /**
+     * Búsqueda por módulo sin distinguir mayúsculas; {@code pattern} viene de {@link #containsPattern(String)}.
+     * La forma LOWER(module) LIKE coincide con el índice trigram idx_courses_module_trgm (schema.sql).
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT c FROM Course c WHERE LOWER(c.module) LIKE :pattern ESCAPE '\\'")
+    Page<Course> findByModuleLike(String pattern, Pageable pageable);
+
+    @Transactional
     boolean deleteCourseById(Long id);
+
+    // Solo versión y updated_at: basta para responder a una petición condicional sin cargar el curso
+    @Transactional(readOnly = true)
+    @Query("SELECT new org.manudev.auth_catalog_kata.dto.CourseVersionDTO(c.version, c.updatedAt) FROM Course c WHERE c.id = :id")
+    Optional<CourseVersionDTO> findVersionById(Long id);
+
+    // Paginación por keyset: sin OFFSET ni count(*), usan la PK o el índice (updated_at, id)
+
+    @Transactional(readOnly = true)
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT c FROM Course c WHERE LOWER(c.module) LIKE :pattern ESCAPE '\\' AND c.id > :id ORDER BY c.id")
+    List<Course> findByModuleLikeAfterId(String pattern, Long id, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT c FROM Course c WHERE c.updatedAt > :updatedAt OR (c.updatedAt = :updatedAt AND c.id > :id) " +
+            "ORDER BY c.updatedAt, c.id")
+    List<Course> findAfterUpdatedAt(LocalDateTime updatedAt, Long id, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT c FROM Course c WHERE LOWER(c.module) LIKE :pattern ESCAPE '\\' " +
+            "AND (c.updatedAt > :updatedAt OR (c.updatedAt = :updatedAt AND c.id > :id)) " +
+            "ORDER BY c.updatedAt, c.id")
+    List<Course> findByModuleLikeAfterUpdatedAt(String pattern, LocalDateTime updatedAt, Long id, Limit limit);
+
+    /**
+     * Convierte un texto en el patrón "%texto%" en minúsculas, escapando los comodines de LIKE,
+     * para obtener el mismo resultado que un ContainingIgnoreCase.
+     */
+    static String containsPattern(String text) {
+        String escaped = text.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
 }
@@ -1,7 +1,144 @@
 package org.manudev.auth_catalog_kata.repository;
 
+import org.manudev.auth_catalog_kata.dto.CompletionBucketView;
+import org.manudev.auth_catalog_kata.dto.CourseCompletionView;
+import org.manudev.auth_catalog_kata.dto.CourseRollupDTO;
+import org.manudev.auth_catalog_kata.dto.DailyLearnersView;
+import org.manudev.auth_catalog_kata.dto.StartedProgressView;
+import org.manudev.auth_catalog_kata.dto.UserActivityView;
+import org.manudev.auth_catalog_kata.dto.UserProgressDTO;
 import org.manudev.auth_catalog_kata.entities.UserProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface IUserProgressRepository extends JpaRepository<UserProgress, Long> {
+
+    /**
+     * Empieza un curso en una sola sentencia. Si ya existe progreso para (usuario, curso) no lo modifica
+     * (el DO UPDATE vacío solo sirve para que RETURNING devuelva la fila existente).
+     * xmax = 0 solo en una fila recién insertada: indica si esta llamada la creó.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO user_progress (user_id, course_id, status, started_at, updated_at)
+            VALUES (:userId, :courseId, 'started', :now, :now)
+            ON CONFLICT (user_id, course_id) DO UPDATE SET updated_at = user_progress.updated_at
+            RETURNING course_id AS courseId,
+                      (SELECT c.title FROM courses c WHERE c.id = course_id) AS courseTitle,
+                      status, started_at AS startedAt, completed_at AS completedAt,
+                      (xmax = 0) AS created
+            """, nativeQuery = true)
+    StartedProgressView upsertStarted(@Param("userId") Long userId,
+                                   @Param("courseId") Long courseId,
+                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Completa un curso en una sola sentencia, aunque no se hubiera empezado.
+     * Es idempotente: una segunda llamada conserva el completed_at original. Solo la llamada que
+     * lo completa (completed_at == now) escribe la fila del outbox de insignias, en la misma sentencia.
+     */
+    @Transactional
+    @Query(value = """
+            WITH progress AS (
+                INSERT INTO user_progress (user_id, course_id, status, started_at, completed_at, updated_at)
+                VALUES (:userId, :courseId, 'completed', :now, :now, :now)
+                ON CONFLICT (user_id, course_id) DO UPDATE SET
+                    status = 'completed',
+                    completed_at = COALESCE(user_progress.completed_at, EXCLUDED.completed_at),
+                    updated_at = CASE WHEN user_progress.completed_at IS NULL
+                                      THEN EXCLUDED.updated_at ELSE user_progress.updated_at END
+                RETURNING course_id, status, started_at, completed_at, (xmax = 0) AS created,
+                          (SELECT c.title FROM courses c WHERE c.id = course_id) AS course_title
+            ), outbox AS (
+                INSERT INTO badge_outbox (user_id, course_id, course_title, created_at)
+                SELECT :userId, p.course_id, p.course_title, :now FROM progress p WHERE p.completed_at = :now
+                RETURNING id
+            )
+            SELECT p.course_id AS courseId, p.course_title AS courseTitle, p.status,
+                   p.started_at AS startedAt, p.completed_at AS completedAt, p.created AS created,
+                   (SELECT o.id FROM outbox o) AS outboxId
+            FROM progress p
+            """, nativeQuery = true)
+    CourseCompletionView upsertCompleted(@Param("userId") Long userId,
+                                         @Param("courseId") Long courseId,
+                                         @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT new org.manudev.auth_catalog_kata.dto.UserProgressDTO(c.id, c.title, p.status, p.startedAt, p.completedAt)
+            FROM UserProgress p JOIN p.course c
+            WHERE p.user.id = :userId
+            ORDER BY p.updatedAt DESC
+            """)
+    List<UserProgressDTO> findProgressByUserId(@Param("userId") Long userId);
+
+    /**
+     * Progreso y número de insignias de un usuario en una sola consulta.
+     * Las insignias se cuentan por código "{userId}:{courseId}" y también por el antiguo "{userId}".
+     */
+    default List<UserActivityView> findActivityByUserId(Long userId) {
+        return findActivityRows(userId, userId.toString(), userId + ":%");
+    }
+
+    @Query(value = """
+            SELECT b.total AS badgeCount, p.course_id AS courseId, c.title AS courseTitle, p.status AS status,
+                   p.started_at AS startedAt, p.completed_at AS completedAt
+            FROM (SELECT COUNT(*) AS total FROM badges WHERE code = :code OR code LIKE :codePrefix) b
+            LEFT JOIN user_progress p ON p.user_id = :userId
+            LEFT JOIN courses c ON c.id = p.course_id
+            ORDER BY p.updated_at DESC
+            """, nativeQuery = true)
+    List<UserActivityView> findActivityRows(@Param("userId") Long userId,
+                                            @Param("code") String code,
+                                            @Param("codePrefix") String codePrefix);
+
+    // Consultas de reconstrucción de la analítica (CourseAnalytics.compact): recorren user_progress entera,
+    // solo se ejecutan en la compactación periódica y en transacciones de solo lectura (réplica si está activa)
+
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT new org.manudev.auth_catalog_kata.dto.CourseRollupDTO(c.id, c.module, COUNT(p), COUNT(p.completedAt))
+            FROM UserProgress p JOIN p.course c
+            GROUP BY c.id, c.module
+            """)
+    List<CourseRollupDTO> rollupByCourse();
+
+    /**
+     * Completados por curso y bucket de duración: 0 si duró menos de un minuto, n si duró [2^(n-1), 2^n) minutos.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT course_id AS courseId, bucket, COUNT(*) AS completions
+            FROM (SELECT course_id,
+                         CASE WHEN minutes < 1 THEN 0
+                              ELSE LEAST(:maxBucket, CAST(FLOOR(LOG(2, minutes)) AS integer) + 1) END AS bucket
+                  FROM (SELECT course_id, FLOOR(EXTRACT(EPOCH FROM completed_at - started_at) / 60) AS minutes
+                        FROM user_progress
+                        WHERE completed_at IS NOT NULL AND started_at IS NOT NULL) d) b
+            GROUP BY course_id, bucket
+            """, nativeQuery = true)
+    List<CompletionBucketView> completionBuckets(@Param("maxBucket") int maxBucket);
+
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT day, COUNT(DISTINCT user_id) AS learners
+            FROM (SELECT user_id, CAST(started_at AS date) AS day FROM user_progress WHERE started_at >= :since
+                  UNION ALL
+                  SELECT user_id, CAST(completed_at AS date) AS day FROM user_progress WHERE completed_at >= :since) a
+            GROUP BY day
+            """, nativeQuery = true)
+    List<DailyLearnersView> dailyLearners(@Param("since") LocalDateTime since);
+
+    @Transactional(readOnly = true)
+    @Query(value = """
+            SELECT user_id FROM user_progress WHERE started_at >= :since
+            UNION
+            SELECT user_id FROM user_progress WHERE completed_at >= :since
+            """, nativeQuery = true)
+    List<Long> learnerIdsSince(@Param("since") LocalDateTime since);
 }
@@ -6,7 +6,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.manudev.auth_catalog_kata.cache.AuthorityRegistry;
+import org.manudev.auth_catalog_kata.metrics.LatencyHistogram;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -14,16 +16,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    public JwtFilter(JwtUtil jwtUtil) {
+    public JwtFilter(JwtUtil jwtUtil, JwtTokenCache tokenCache, AuthorityRegistry authorityRegistry,
+                     MetricsRegistry metrics) {
         this.jwtUtil = jwtUtil;
+        this.tokenCache = tokenCache;
+        this.authorityRegistry = authorityRegistry;
+        this.parseTimer = metrics.timer("jwt_parse_seconds", "JWT signature check and claims parsing (cache misses)");
+        this.failures = metrics.counter("jwt_failures", "Requests rejected because of an invalid token");
     }
 
     private final JwtUtil jwtUtil;
+    private final JwtTokenCache tokenCache;
+    private final AuthorityRegistry authorityRegistry;
+    private final LatencyHistogram parseTimer;
+    private final LongAdder failures;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -39,34 +50,10 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = header.substring(7);
 
         try {
-            Jws<Claims> jws = jwtUtil.parseToken(token);
-            Claims claims = jws.getBody();
-
-            Object rolesObj = claims.get("roles");
-            List<String> roles = new ArrayList<>();
-            if (rolesObj instanceof Collection) {
-                roles = ((Collection<?>) rolesObj).stream()
-                        .map(Object::toString)
-                        .collect(Collectors.toList());
-            } else if (rolesObj instanceof Object[]) {
-                roles = Arrays.stream((Object[]) rolesObj)
-                        .map(Object::toString)
-                        .collect(Collectors.toList());
-            } else if (rolesObj != null) {
-                roles = Collections.singletonList(rolesObj.toString());
-            }
-
-            List<SimpleGrantedAuthority> authorities = roles.stream()
-                    .map(r -> new SimpleGrantedAuthority("ROLE_" + r.toUpperCase()))
-                    .collect(Collectors.toList());
-
-            // subject puede ser id o email según tu implementación
-            String subject = claims.getSubject();
-
-            UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(subject, null, authorities);
-
-            SecurityContextHolder.getContext().setAuthentication(auth);
+            JwtTokenCache.VerifiedToken verified = tokenCache.get(token, this::timedVerify);
+
+            // Authentication propio de la petición sobre las authorities internadas del token
+            SecurityContextHolder.getContext().setAuthentication(verified.authentication());
 
             filterChain.doFilter(request, response);
 
@@ -74,4 +61,37 @@ public class JwtFilter extends OncePerRequestFilter {
             throw  new ServletException(ex);
         }
     }
+
+    private JwtTokenCache.VerifiedToken timedVerify(String token) {
+        long start = System.nanoTime();
+        try {
+            return verify(token);
+        } catch (RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            parseTimer.record(System.nanoTime() - start);
+        }
+    }
+
+    // Visible en el paquete para los benchmarks (src/jmh)
+    JwtTokenCache.VerifiedToken verify(String token) {
+        Jws<Claims> jws = jwtUtil.parseToken(token);
+        Claims claims = jws.getBody();
+
+        List<SimpleGrantedAuthority> authorities = authorityRegistry.authoritiesFor(roles(claims.get("roles")));
+
+        Date exp = claims.getExpiration();
+        long expiresAt = exp != null ? exp.getTime() : System.currentTimeMillis() + jwtUtil.getExpiration();
+
+        return new JwtTokenCache.VerifiedToken(claims.getSubject(), authorities, expiresAt);
+    }
+
+    private static List<?> roles(Object claim) {
+        if (claim instanceof List<?> list) return list;
+        if (claim instanceof Collection<?> collection) return List.copyOf(collection);
+        if (claim instanceof Object[] array) return Arrays.asList(array);
+        if (claim != null) return List.of(claim.toString());
+        return List.of();
+    }
 }
@@ -0,0 +1,100 @@
+package org.manudev.auth_catalog_kata.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache acotada de tokens ya verificados.
+ * La clave es el SHA-256 del token y cada entrada expira en el "exp" del propio token,
+ * así un token solo se verifica (HMAC + deserialización de claims) una vez mientras sea válido.
+ */
+@Component
+public class JwtTokenCache {
+
+    public JwtTokenCache(@Value("${app.jwt.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    private final Cache<String, VerifiedToken> cache;
+
+    /**
+     * Devuelve el token verificado desde la cache o lo verifica con {@code verifier}.
+     * Si la verificación lanza una excepción no se guarda nada.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Resultado de verificar un token: subject, authorities ya construidas (internadas) y expiración (epoch millis).
+     */
+    public record VerifiedToken(String subject, List<SimpleGrantedAuthority> authorities, long expiresAtMillis) {
+
+        /**
+         * Authentication nuevo para cada petición: es mutable (details, credenciales, authenticated) y no puede
+         * compartirse entre peticiones concurrentes con el mismo token. Las authorities sí se comparten.
+         */
+        public UsernamePasswordAuthenticationToken authentication() {
+            return new UsernamePasswordAuthenticationToken(subject, null, authorities);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
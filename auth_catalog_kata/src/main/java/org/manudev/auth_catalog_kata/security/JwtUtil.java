@@ -2,6 +2,7 @@ package org.manudev.auth_catalog_kata.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,11 +18,16 @@ public class JwtUtil {
 
     private final Key key;
     private final long expiration;
+    // El parser es inmutable y thread-safe, se construye una sola vez
+    private final JwtParser parser;
 
     public JwtUtil(@Value("${app.jwt.secret}") String secret,
                    @Value("${app.jwt.expiration}") long expiration) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expiration = expiration;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -36,10 +42,11 @@ public class JwtUtil {
                 .compact();
     }
 
+    public long getExpiration() {
+        return expiration;
+    }
+
     public Jws<Claims> parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
     }
 }
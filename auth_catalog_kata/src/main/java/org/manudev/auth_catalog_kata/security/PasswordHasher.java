@@ -0,0 +1,150 @@
+package org.manudev.auth_catalog_kata.security;
+
+import jakarta.annotation.PreDestroy;
+import org.manudev.auth_catalog_kata.metrics.LatencyHistogram;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ejecuta BCrypt (encode/matches) en un pool dedicado y acotado, fuera de los hilos de las peticiones.
+ * Si la cola está llena se responde 429 de inmediato en lugar de acumular trabajo de CPU,
+ * así una ráfaga de logins no deja sin hilos al resto de endpoints.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    public PasswordHasher(BCryptPasswordEncoder passwordEncoder,
+                          @Value("${app.security.bcrypt.cost:10}") int cost,
+                          @Value("${app.security.bcrypt.threads:0}") int threads,
+                          @Value("${app.security.bcrypt.queue-depth:64}") int queueDepth,
+                          @Value("${app.security.bcrypt.timeout:5s}") Duration timeout,
+                          MetricsRegistry metrics) {
+        this.passwordEncoder = passwordEncoder;
+        this.cost = cost;
+        this.timeoutMillis = timeout.toMillis();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        String help = "BCrypt work time, excluding the wait in the pool queue";
+        this.encodeTimer = metrics.timer("bcrypt_seconds", help, "operation", "encode");
+        this.matchesTimer = metrics.timer("bcrypt_seconds", help, "operation", "matches");
+        this.rejected = metrics.counter("bcrypt_rejected", "Password operations rejected because the pool was full");
+        metrics.gauge("bcrypt_queue_depth", "Password operations waiting for a BCrypt thread", this::getQueueDepth);
+        metrics.gauge("bcrypt_active", "BCrypt threads busy", this::getActiveCount);
+    }
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final int cost;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final LatencyHistogram encodeTimer;
+    private final LatencyHistogram matchesTimer;
+    private final LongAdder rejected;
+
+    public String encode(String rawPassword) {
+        return await(submit(() -> encodeTimer.time(() -> passwordEncoder.encode(rawPassword))));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(() -> matchesTimer.time(() -> passwordEncoder.matches(rawPassword, encodedPassword))));
+    }
+
+    /**
+     * Versión asíncrona de encode para trabajo que no bloquea la respuesta (rehash tras el login).
+     * Si el pool está saturado el futuro termina con RejectedExecutionException.
+     */
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encodeTimer.time(() -> passwordEncoder.encode(rawPassword)), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * true si el hash se generó con un coste distinto al configurado (app.security.bcrypt.cost).
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many password operations, retry later");
+        }
+    }
+
+    /**
+     * Al vencer el plazo solo se retira la tarea si sigue en la cola: BCrypt no atiende interrupciones,
+     * así que una ya en marcha termina igualmente y su resultado se descarta. Como mucho {@code threads}
+     * operaciones siguen ocupando CPU tras su timeout; el plazo cubre sobre todo la espera en cola,
+     * de ahí que queue-depth se mantenga pequeño frente a timeout / coste de un hash.
+     */
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // submit devuelve la propia FutureTask encolada
+            if (executor.remove((Runnable) future)) {
+                future.cancel(false);
+            }
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Password operation timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Password operation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.manudev.auth_catalog_kata.security;
 
+import org.manudev.auth_catalog_kata.ratelimit.RateLimitFilter;
+import org.manudev.auth_catalog_kata.ratelimit.UserRateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.context.annotation.Bean;
 import org.springframework.web.cors.CorsConfiguration;
@@ -16,16 +21,26 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     public SecurityConfig(
-            JwtFilter jwtFilter
+            JwtFilter jwtFilter,
+            RateLimitFilter rateLimitFilter,
+            UserRateLimitFilter userRateLimitFilter
     ) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.userRateLimitFilter = userRateLimitFilter;
     }
 
     private final JwtFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final UserRateLimitFilter userRateLimitFilter;
+
+    // /metrics no lleva token: solo se sirve a un scraper local
+    private static final IpAddressMatcher LOCAL_IPV4 = new IpAddressMatcher("127.0.0.1");
+    private static final IpAddressMatcher LOCAL_IPV6 = new IpAddressMatcher("::1");
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
@@ -35,8 +50,13 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
+                        .requestMatchers("/metrics").access((authentication, context) -> new AuthorizationDecision(
+                                LOCAL_IPV4.matches(context.getRequest()) || LOCAL_IPV6.matches(context.getRequest())))
                         .anyRequest().authenticated())
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                // Límite por IP y descarte de carga antes de validar el token; por usuario y endpoint, después
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(jwtFilter, RateLimitFilter.class)
+                .addFilterAfter(userRateLimitFilter, JwtFilter.class);
 
         return http.build();
     }
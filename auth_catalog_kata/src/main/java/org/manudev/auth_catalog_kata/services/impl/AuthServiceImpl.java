@@ -4,32 +4,56 @@ import org.manudev.auth_catalog_kata.entities.Role;
 import org.manudev.auth_catalog_kata.entities.User;
 import org.manudev.auth_catalog_kata.repository.IUsersRepository;
 import org.manudev.auth_catalog_kata.security.JwtUtil;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.manudev.auth_catalog_kata.security.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class AuthServiceImpl {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     private final IUsersRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
 
 
-    public AuthServiceImpl(IUsersRepository userRepository, JwtUtil jwtUtil) {
+    public AuthServiceImpl(IUsersRepository userRepository, JwtUtil jwtUtil, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
+        this.passwordHasher = passwordHasher;
     }
 
     public String login(String email, String rawPassword) {
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findWithRolesByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Credenciales inválidas"));
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        if (!passwordHasher.matches(rawPassword, user.getPassword())) {
             throw new IllegalArgumentException("Credenciales inválidas");
         }
 
+        // El hash se regeneró con otro coste: se actualiza en segundo plano, sin retrasar el login.
+        // Si el pool está saturado se omite y se reintentará en el próximo login.
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            Long userId = user.getId();
+            passwordHasher.encodeAsync(rawPassword)
+                    .thenAccept(hash -> userRepository.updatePassword(userId, hash))
+                    .whenComplete((ignored, e) -> {
+                        if (e == null) return;
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof RejectedExecutionException) {
+                            log.warn("Skipped password rehash for user {}: hashing pool is saturated, retrying on next login", userId);
+                        } else {
+                            log.warn("Could not rehash password for user {}, retrying on next login", userId, cause);
+                        }
+                    });
+        }
+
         HashMap<String, Object> claims = new HashMap<>();
         claims.put("id", user.getId());
         claims.put("email", user.getEmail());
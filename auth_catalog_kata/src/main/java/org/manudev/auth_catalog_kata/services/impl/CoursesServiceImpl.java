@@ -1,58 +1,197 @@
 package org.manudev.auth_catalog_kata.services.impl;
 
+import org.manudev.auth_catalog_kata.cache.CourseCatalogCache;
+import org.manudev.auth_catalog_kata.cache.CourseCatalogIndex;
+import org.manudev.auth_catalog_kata.cache.ModuleRegistry;
+import org.manudev.auth_catalog_kata.dto.CacheStatsDTO;
+import org.manudev.auth_catalog_kata.dto.CourseCursor;
+import org.manudev.auth_catalog_kata.dto.CourseExportFormat;
+import org.manudev.auth_catalog_kata.dto.CourseImportProgressDTO;
+import org.manudev.auth_catalog_kata.dto.CourseImportResultDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestDTO;
+import org.manudev.auth_catalog_kata.dto.CourseRequestKeysetDTO;
 import org.manudev.auth_catalog_kata.entities.Course;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import lombok.NonNull;
 import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
 import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseSliceDTO;
+import org.manudev.auth_catalog_kata.dto.CourseVersionDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCatalogDTO;
+import org.manudev.auth_catalog_kata.repository.CourseBatchRepository;
 import org.manudev.auth_catalog_kata.repository.ICourseRepository;
 import org.manudev.auth_catalog_kata.services.interfaces.ICoursesService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class CoursesServiceImpl implements ICoursesService {
 
-    public CoursesServiceImpl(ICourseRepository courseRepository) {
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,title,description,module,durationHours,badgeImage,createdAt,updatedAt\n";
+
+    public CoursesServiceImpl(ICourseRepository courseRepository,
+                              CourseCatalogCache catalogCache,
+                              CourseCatalogIndex catalogIndex,
+                              ModuleRegistry moduleRegistry,
+                              CourseBatchRepository courseBatchRepository,
+                              JsonMapper jsonMapper,
+                              @Value("${app.courses.import.batch-size:1000}") int importBatchSize,
+                              TransactionOperations transactionOperations,
+                              @Value("${app.courses.update.max-attempts:3}") int updateMaxAttempts) {
         this.courseRepository = courseRepository;
+        this.catalogCache = catalogCache;
+        this.catalogIndex = catalogIndex;
+        this.moduleRegistry = moduleRegistry;
+        this.courseBatchRepository = courseBatchRepository;
+        this.jsonMapper = jsonMapper;
+        this.importBatchSize = importBatchSize;
+        this.transactionOperations = transactionOperations;
+        this.updateMaxAttempts = updateMaxAttempts;
     }
 
     private final ICourseRepository courseRepository;
+    private final CourseCatalogCache catalogCache;
+    private final CourseCatalogIndex catalogIndex;
+    private final ModuleRegistry moduleRegistry;
+    private final CourseBatchRepository courseBatchRepository;
+    private final JsonMapper jsonMapper;
+    private final int importBatchSize;
+    private final TransactionOperations transactionOperations;
+    private final int updateMaxAttempts;
 
     @Override
     public List<String> getAvailableModules() {
-        List<String> availableModules = courseRepository.findDistinctModulesNative();
-        return availableModules.isEmpty() ? Collections.emptyList() : availableModules.stream().sorted().toList();
+        return moduleRegistry.catalog().modules();
+    }
+
+    @Override
+    public ModuleCatalogDTO getModuleCatalog() {
+        return moduleRegistry.catalog();
     }
 
+    /**
+     * Sin transacción a nivel de servicio: un acierto de cache no debe tomar una conexión del pool.
+     * Cada consulta del repositorio abre su propia transacción de solo lectura (findAll la hereda de
+     * SimpleJpaRepository; las declaradas en ICourseRepository la llevan explícita).
+     * Con el índice del catálogo cargado las páginas salen de él, en orden de id.
+     */
     @Override
-    @Transactional(readOnly = true)
     public Page<@NonNull CourseResponseDTO> listCourses(CourseRequestPageableDTO request) {
 
         var pageable = request.toPageable();
-        Page<Course> page;
-        if (request.module() != null && !request.module().isBlank()) {
-            page = courseRepository.findByModuleContainingIgnoreCase(request.module().trim(), pageable);
+        CourseCatalogIndex.Snapshot index = catalogIndex.snapshot();
+        if (index != null) {
+            return index.page(request.module(), pageable);
+        }
+        return catalogCache.getPage(request.module(), pageable, () -> {
+            Page<Course> page;
+            if (request.module() != null && !request.module().isBlank()) {
+                page = courseRepository.findByModuleLike(ICourseRepository.containsPattern(request.module()), pageable);
+            } else {
+                page = courseRepository.findAll(pageable);
+            }
+            return page.map(CoursesServiceImpl::toDto);
+        });
+    }
+
+    /**
+     * Listado por keyset: pide un elemento extra para saber si hay página siguiente sin ejecutar count(*).
+     */
+    @Override
+    public CourseSliceDTO listCoursesAfter(CourseRequestKeysetDTO request) {
+
+        CourseCursor cursor = request.cursor();
+        int size = request.limit();
+        Limit limit = Limit.of(size + 1);
+        String pattern = request.module() != null && !request.module().isBlank()
+                ? ICourseRepository.containsPattern(request.module())
+                : null;
+
+        // El índice solo guarda el orden por id; el orden por fecha de modificación sigue en la BD
+        CourseCatalogIndex.Snapshot index = catalogIndex.snapshot();
+        List<CourseResponseDTO> rows;
+        if (cursor.sort() == CourseCursor.Sort.ID && index != null) {
+            rows = index.after(request.module(), cursor.id(), size + 1);
         } else {
-            page = courseRepository.findAll(pageable);
+            List<Course> courses;
+            if (cursor.sort() == CourseCursor.Sort.ID) {
+                courses = pattern != null
+                        ? courseRepository.findByModuleLikeAfterId(pattern, cursor.id(), limit)
+                        : courseRepository.findByIdGreaterThanOrderByIdAsc(cursor.id(), limit);
+            } else {
+                courses = pattern != null
+                        ? courseRepository.findByModuleLikeAfterUpdatedAt(pattern, cursor.updatedAt(), cursor.id(), limit)
+                        : courseRepository.findAfterUpdatedAt(cursor.updatedAt(), cursor.id(), limit);
+            }
+            rows = courses.stream().map(CoursesServiceImpl::toDto).toList();
         }
 
-        return page.map(this::toDto);
+        boolean hasNext = rows.size() > size;
+        List<CourseResponseDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? CourseCursor.after(cursor.sort(), content.get(size - 1)).encode() : null;
+
+        return new CourseSliceDTO(content, content.size(), hasNext, nextCursor);
     }
 
+    /**
+     * Un curso que no está en el índice se busca en la BD: puede haberse creado en otra instancia.
+     */
     @Override
-    @Transactional(readOnly = true)
     public CourseResponseDTO getCourseById(Long id) {
-        return toDto(courseRepository.findById(id).orElseThrow(
+        CourseCatalogIndex.Snapshot index = catalogIndex.snapshot();
+        CourseResponseDTO indexed = index == null ? null : index.get(id);
+        if (indexed != null) {
+            return indexed;
+        }
+        return catalogCache.getById(id, () -> toDto(courseRepository.findById(id).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found with id: " + id))
-        );
+        ));
+    }
+
+    /**
+     * Versión y fecha de modificación para las peticiones condicionales: salen del índice o de la cache si el curso
+     * está cargado y si no de una consulta que solo lee esas dos columnas. Vacío si el curso no existe.
+     */
+    @Override
+    public Optional<CourseVersionDTO> getCourseVersion(Long id) {
+        CourseCatalogIndex.Snapshot index = catalogIndex.snapshot();
+        CourseResponseDTO cached = index == null ? null : index.get(id);
+        if (cached == null) {
+            cached = catalogCache.peekById(id);
+        }
+        if (cached != null) {
+            return Optional.of(new CourseVersionDTO(cached.version(), cached.updatedAt()));
+        }
+        return courseRepository.findVersionById(id);
+    }
+
+    @Override
+    public String getCatalogETag() {
+        return catalogCache.catalogETag();
     }
 
     @Override
@@ -67,26 +206,60 @@ public class CoursesServiceImpl implements ICoursesService {
                 .badgeImage(request.image())
                 .build();
         Course createdCourse = courseRepository.save(course);
+        catalogCache.evictCourse(createdCourse.getId(), null, createdCourse.getModule());
+        moduleRegistry.courseAdded(createdCourse.getModule());
 
-        return toDto(createdCourse);
+        CourseResponseDTO created = toDto(createdCourse);
+        catalogIndex.courseSaved(created);
+        return created;
     }
 
     @Override
     @Transactional
     public boolean deleteCourseById(Long id) {
-        if (!courseRepository.existsById(id)) return false;
-        courseRepository.deleteById(id);
+        Course course = courseRepository.findById(id).orElse(null);
+        if (course == null) return false;
+        courseRepository.delete(course);
+        catalogCache.evictCourse(id, course.getModule(), null);
+        catalogIndex.courseDeleted(id);
+        moduleRegistry.courseRemoved(course.getModule());
         return true;
     }
 
+    /**
+     * Actualización con control optimista (@Version).
+     * Con {@code expectedVersion} (If-Match) un cambio concurrente es un conflicto: 412.
+     * Sin él se reintenta la lectura-modificación-escritura sobre la versión nueva, hasta
+     * app.courses.update.max-attempts veces; solo se escriben los campos que cambian (@DynamicUpdate).
+     */
     @Override
-    @Transactional
-    public CourseResponseDTO updateCourseById(Long id, CourseRequestDTO request) {
+    public CourseResponseDTO updateCourseById(Long id, CourseRequestDTO request, Long expectedVersion) {
+
+        int attempts = expectedVersion == null ? Math.max(1, updateMaxAttempts) : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> applyUpdate(id, request, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw new ResponseStatusException(expectedVersion == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED,
+                            "Course with id " + id + " was modified concurrently");
+                }
+            }
+        }
+    }
+
+    private CourseResponseDTO applyUpdate(Long id, CourseRequestDTO request, Long expectedVersion) {
 
         Course course = courseRepository.findById(id).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found with id: " + id)
         );
 
+        if (expectedVersion != null && !expectedVersion.equals(course.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Course version mismatch for id: " + id);
+        }
+
+        String previousModule = course.getModule();
+
         if (request.description() != null) {
             course.setDescription(request.description());
         }
@@ -103,12 +276,124 @@ public class CoursesServiceImpl implements ICoursesService {
         course.setUpdatedAt(LocalDateTime.now());
 
         Course saved = courseRepository.save(course);
+        // UPDATE ... WHERE version = ? ahora: el conflicto salta dentro del intento y la respuesta lleva la versión nueva
+        courseRepository.flush();
+        catalogCache.evictCourse(id, previousModule, saved.getModule());
+        moduleRegistry.courseMoved(previousModule, saved.getModule());
 
-        return toDto(saved);
+        CourseResponseDTO updated = toDto(saved);
+        catalogIndex.courseSaved(updated);
+        return updated;
     }
 
+    /**
+     * Importación masiva: lee el cuerpo en streaming (array JSON o NDJSON, un curso por línea)
+     * e inserta por lotes, cada uno en su transacción. Las caches se refrescan una sola vez al final,
+     * también si la importación se corta a mitad (los lotes anteriores ya están confirmados).
+     */
+    @Override
+    public CourseImportResultDTO importCourses(InputStream body, Integer batchSize, Consumer<CourseImportProgressDTO> progress) {
+
+        int size = batchSize == null || batchSize <= 0 ? importBatchSize : batchSize;
+        long start = System.nanoTime();
+        List<CourseRequestDTO> batch = new ArrayList<>(size);
+        int batches = 0;
+        long imported = 0;
+        long skipped = 0;
+        String error = null;
+
+        try (MappingIterator<CourseRequestDTO> courses = jsonMapper.readerFor(CourseRequestDTO.class).readValues(body)) {
+            while (courses.hasNextValue()) {
+                CourseRequestDTO course = courses.nextValue();
+                if (course == null || course.title() == null || course.title().isBlank()) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(course);
+                if (batch.size() == size) {
+                    imported += courseBatchRepository.insertBatch(batch);
+                    progress.accept(new CourseImportProgressDTO(++batches, batch.size(), imported, skipped));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                imported += courseBatchRepository.insertBatch(batch);
+                progress.accept(new CourseImportProgressDTO(++batches, batch.size(), imported, skipped));
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+        } finally {
+            if (imported > 0) {
+                catalogCache.evictAll();
+                catalogIndex.invalidate();
+                moduleRegistry.invalidate();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new CourseImportResultDTO(error == null, batches, imported, skipped, elapsedMillis, error);
+    }
+
+    /**
+     * Exportación del catálogo en streaming, en orden de id y a partir de {@code afterId}
+     * para poder reanudar una descarga cortada con el último id recibido.
+     * Cada fila se escribe en cuanto llega del cursor; la memoria no depende del tamaño del catálogo.
+     */
+    @Override
+    public long exportCourses(Long afterId, CourseExportFormat format, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        if (format == CourseExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        long exported;
+        try {
+            exported = courseBatchRepository.streamAfter(afterId == null ? 0L : afterId, course -> {
+                try {
+                    if (format == CourseExportFormat.CSV) {
+                        writeCsvRow(writer, course);
+                    } else {
+                        writer.write(jsonMapper.writeValueAsString(course));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // El cliente cerró la conexión: se corta la consulta y se propaga el error de E/S original
+            throw e.getCause();
+        }
+        writer.flush();
+        return exported;
+    }
+
+    private static void writeCsvRow(Writer writer, CourseResponseDTO course) throws IOException {
+        writer.write(String.valueOf(course.id()));
+        for (Object value : new Object[]{course.title(), course.description(), course.module(),
+                course.durationHours(), course.badgeImage(), course.createdAt(), course.updatedAt()}) {
+            writer.write(',');
+            writer.write(csvField(value));
+        }
+        writer.write('\n');
+    }
+
+    static String csvField(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public Map<String, CacheStatsDTO> getCacheStats() {
+        return catalogCache.stats();
+    }
 
-    private CourseResponseDTO toDto(Course c) {
+    static CourseResponseDTO toDto(Course c) {
         return new CourseResponseDTO(
                 c.getId(),
                 c.getTitle(),
@@ -117,7 +402,8 @@ public class CoursesServiceImpl implements ICoursesService {
                 c.getDurationHours(),
                 c.getBadgeImage(),
                 c.getCreatedAt(),
-                c.getUpdatedAt()
+                c.getUpdatedAt(),
+                c.getVersion()
         );
     }
 }
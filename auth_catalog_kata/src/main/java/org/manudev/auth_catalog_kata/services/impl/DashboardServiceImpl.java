@@ -0,0 +1,61 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import org.manudev.auth_catalog_kata.cache.UserActivityCache;
+import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.DashboardDTO;
+import org.manudev.auth_catalog_kata.dto.UserActivityDTO;
+import org.manudev.auth_catalog_kata.repository.IUserProgressRepository;
+import org.manudev.auth_catalog_kata.services.interfaces.ICoursesService;
+import org.manudev.auth_catalog_kata.services.interfaces.IDashboardService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Todo lo que necesita la página de inicio en una sola petición.
+ * La página de cursos y la actividad del usuario son lecturas independientes y se piden en paralelo;
+ * los módulos salen de memoria. La actividad del usuario es una única consulta (progreso + insignias).
+ */
+@Service
+public class DashboardServiceImpl implements IDashboardService {
+
+    public DashboardServiceImpl(ICoursesService coursesService,
+                                IUserProgressRepository userProgressRepository,
+                                UserActivityCache userActivityCache,
+                                @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.coursesService = coursesService;
+        this.userProgressRepository = userProgressRepository;
+        this.userActivityCache = userActivityCache;
+        this.executor = executor;
+    }
+
+    private final ICoursesService coursesService;
+    private final IUserProgressRepository userProgressRepository;
+    private final UserActivityCache userActivityCache;
+    private final Executor executor;
+
+    @Override
+    public DashboardDTO getDashboard(Long userId, CourseRequestPageableDTO request) {
+
+        CompletableFuture<UserActivityDTO> activity = CompletableFuture.supplyAsync(() -> userActivityCache.get(userId,
+                () -> UserActivityDTO.from(userProgressRepository.findActivityByUserId(userId))), executor);
+
+        // La página de cursos normalmente sale de la cache del catálogo: se resuelve en el hilo de la petición
+        Page<CourseResponseDTO> courses = coursesService.listCourses(request);
+        List<String> modules = coursesService.getAvailableModules();
+
+        try {
+            UserActivityDTO userActivity = activity.join();
+            return new DashboardDTO(courses, modules, userActivity.progress(), userActivity.badgeCount());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import org.manudev.auth_catalog_kata.analytics.CourseAnalytics;
+import org.manudev.auth_catalog_kata.cache.UserActivityCache;
+import org.manudev.auth_catalog_kata.dto.BadgeAwardEvent;
+import org.manudev.auth_catalog_kata.dto.CourseCompletionDTO;
+import org.manudev.auth_catalog_kata.dto.CourseCompletionView;
+import org.manudev.auth_catalog_kata.dto.StartedProgressView;
+import org.manudev.auth_catalog_kata.dto.UserProgressDTO;
+import org.manudev.auth_catalog_kata.dto.UserProgressView;
+import org.manudev.auth_catalog_kata.events.BadgeAwardPipeline;
+import org.manudev.auth_catalog_kata.repository.IUserProgressRepository;
+import org.manudev.auth_catalog_kata.services.interfaces.IUserProgressService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Progreso de los usuarios en los cursos.
+ * Empezar y completar son un único upsert cada uno (una ida y vuelta a la base de datos),
+ * seguros ante clics concurrentes gracias a la restricción única (user_id, course_id).
+ */
+@Service
+public class UserProgressServiceImpl implements IUserProgressService {
+
+    public UserProgressServiceImpl(IUserProgressRepository userProgressRepository,
+                                   BadgeAwardPipeline badgeAwardPipeline,
+                                   UserActivityCache userActivityCache,
+                                   CourseAnalytics courseAnalytics) {
+        this.userProgressRepository = userProgressRepository;
+        this.badgeAwardPipeline = badgeAwardPipeline;
+        this.userActivityCache = userActivityCache;
+        this.courseAnalytics = courseAnalytics;
+    }
+
+    private final IUserProgressRepository userProgressRepository;
+    private final BadgeAwardPipeline badgeAwardPipeline;
+    private final UserActivityCache userActivityCache;
+    private final CourseAnalytics courseAnalytics;
+
+    @Override
+    public UserProgressDTO startCourse(Long userId, Long courseId) {
+        LocalDateTime now = now();
+        StartedProgressView view = upsert(() -> userProgressRepository.upsertStarted(userId, courseId, now), courseId);
+        userActivityCache.evict(userId);
+        courseAnalytics.courseStarted(userId, courseId, Boolean.TRUE.equals(view.getCreated()), now);
+        return UserProgressDTO.from(view);
+    }
+
+    /**
+     * La insignia no se escribe aquí: el upsert deja la fila en el outbox y se encola el evento,
+     * la respuesta vuelve sin esperar a que el pipeline la guarde.
+     */
+    @Override
+    public CourseCompletionDTO completeCourse(Long userId, Long courseId) {
+        CourseCompletionView view = upsert(() -> userProgressRepository.upsertCompleted(userId, courseId, now()), courseId);
+        // Sin fila de outbox el curso ya estaba completado
+        boolean newlyCompleted = view.getOutboxId() != null;
+        if (newlyCompleted) {
+            userActivityCache.evict(userId);
+            badgeAwardPipeline.submit(new BadgeAwardEvent(view.getOutboxId(), userId, courseId, view.getCourseTitle()));
+            courseAnalytics.courseCompleted(userId, courseId, Boolean.TRUE.equals(view.getCreated()),
+                    view.getStartedAt(), view.getCompletedAt());
+        }
+        return new CourseCompletionDTO(UserProgressDTO.from(view), newlyCompleted);
+    }
+
+    @Override
+    public List<UserProgressDTO> listProgress(Long userId) {
+        return userProgressRepository.findProgressByUserId(userId);
+    }
+
+    private <T extends UserProgressView> T upsert(Supplier<T> statement, Long courseId) {
+        try {
+            return statement.get();
+        } catch (DataIntegrityViolationException e) {
+            // Única restricción que puede fallar: la clave foránea del curso (el usuario sale del token)
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course with id " + courseId + " not found");
+        }
+    }
+
+    // Postgres guarda microsegundos: se trunca para que completed_at = :now se cumpla tras redondear
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
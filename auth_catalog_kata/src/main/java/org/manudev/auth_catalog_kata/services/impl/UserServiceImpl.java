@@ -4,52 +4,47 @@ import org.springframework.transaction.annotation.Transactional;
 import org.manudev.auth_catalog_kata.dto.UserRegisterDTO;
 import org.manudev.auth_catalog_kata.entities.Role;
 import org.manudev.auth_catalog_kata.entities.User;
-import org.manudev.auth_catalog_kata.repository.IRoleRepository;
+import org.manudev.auth_catalog_kata.cache.RoleCache;
 import org.manudev.auth_catalog_kata.repository.IUsersRepository;
 import org.manudev.auth_catalog_kata.services.interfaces.IUserService;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.manudev.auth_catalog_kata.security.PasswordHasher;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements IUserService {
 
     public UserServiceImpl(IUsersRepository userRepository,
-                           PasswordEncoder passwordEncoder,
-                           IRoleRepository roleRepository) {
+                           PasswordHasher passwordHasher,
+                           RoleCache roleCache) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.roleRepository = roleRepository;
+        this.passwordHasher = passwordHasher;
+        this.roleCache = roleCache;
     }
 
     private final IUsersRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final IRoleRepository roleRepository;
+    private final PasswordHasher passwordHasher;
+    private final RoleCache roleCache;
 
     @Override
     @Transactional
     public User createUser(UserRegisterDTO userDto) {
 
-        if (userRepository.findByEmail(userDto.email()).isPresent()) {
+        if (userRepository.existsByEmail(userDto.email())) {
             throw new RuntimeException("Email already registered");
         }
 
+        // Los roles salen de la cache en memoria: ninguna consulta por rol
+        Set<Role> roles = roleCache.resolve(userDto.roles() == null ? Set.of() : userDto.roles());
+
         User newUser = User.builder()
                 .name(userDto.name())
                 .email(userDto.email())
-                .password(passwordEncoder.encode(userDto.password()))
+                .password(passwordHasher.encode(userDto.password()))
                 .build();
 
-        Set<Role> role = userDto.roles()
-                .stream().map(roleName ->
-                        roleRepository.findByName(roleName).orElseThrow(
-                                () -> new RuntimeException("Role " + roleName + " not found")
-                        )
-                ).collect(Collectors.toSet());
-
-        newUser.setRoles(role);
+        newUser.setRoles(roles);
 
         return userRepository.save(newUser);
     }
@@ -1,23 +1,58 @@
 package org.manudev.auth_catalog_kata.services.interfaces;
 
 
+import org.manudev.auth_catalog_kata.dto.CacheStatsDTO;
+import org.manudev.auth_catalog_kata.dto.CourseExportFormat;
+import org.manudev.auth_catalog_kata.dto.CourseImportProgressDTO;
+import org.manudev.auth_catalog_kata.dto.CourseImportResultDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestDTO;
+import org.manudev.auth_catalog_kata.dto.CourseRequestKeysetDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
 import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseSliceDTO;
+import org.manudev.auth_catalog_kata.dto.CourseVersionDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCatalogDTO;
 import org.springframework.data.domain.Page;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ICoursesService {
     List<String> getAvailableModules();
 
+    ModuleCatalogDTO getModuleCatalog();
+
     Page<CourseResponseDTO> listCourses(CourseRequestPageableDTO request);
 
+    CourseSliceDTO listCoursesAfter(CourseRequestKeysetDTO request);
+
     CourseResponseDTO getCourseById(Long id);
 
+    Optional<CourseVersionDTO> getCourseVersion(Long id);
+
+    String getCatalogETag();
+
     CourseResponseDTO createCourse(CourseRequestDTO request);
 
     boolean deleteCourseById(Long id);
 
-    CourseResponseDTO updateCourseById(Long id, CourseRequestDTO request);
+    /**
+     * Actualiza un curso; si {@code expectedVersion} no es null solo se aplica sobre esa versión (If-Match).
+     */
+    CourseResponseDTO updateCourseById(Long id, CourseRequestDTO request, Long expectedVersion);
+
+    default CourseResponseDTO updateCourseById(Long id, CourseRequestDTO request) {
+        return updateCourseById(id, request, null);
+    }
+
+    Map<String, CacheStatsDTO> getCacheStats();
+
+    CourseImportResultDTO importCourses(InputStream body, Integer batchSize, Consumer<CourseImportProgressDTO> progress);
+
+    long exportCourses(Long afterId, CourseExportFormat format, OutputStream out) throws IOException;
 }
@@ -0,0 +1,9 @@
+package org.manudev.auth_catalog_kata.services.interfaces;
+
+import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
+import org.manudev.auth_catalog_kata.dto.DashboardDTO;
+
+public interface IDashboardService {
+
+    DashboardDTO getDashboard(Long userId, CourseRequestPageableDTO request);
+}
@@ -0,0 +1,15 @@
+package org.manudev.auth_catalog_kata.services.interfaces;
+
+import org.manudev.auth_catalog_kata.dto.CourseCompletionDTO;
+import org.manudev.auth_catalog_kata.dto.UserProgressDTO;
+
+import java.util.List;
+
+public interface IUserProgressService {
+
+    UserProgressDTO startCourse(Long userId, Long courseId);
+
+    CourseCompletionDTO completeCourse(Long userId, Long courseId);
+
+    List<UserProgressDTO> listProgress(Long userId);
+}
@@ -0,0 +1,72 @@
+-- Esquema base: lo que creaban ddl-auto: update y schema.sql.
+-- Una BD existente sin historial de Flyway se marca en esta versión sin ejecutarla (baseline-on-migrate).
+-- Los cambios de esquema siguientes van en V2__..., V3__...; schema.sql solo se usa en desarrollo.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE roles (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE users (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      varchar(255) NOT NULL UNIQUE,
+    password   varchar(255) NOT NULL,
+    name       varchar(255),
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE user_roles (
+    user_id bigint NOT NULL REFERENCES users (id),
+    role_id bigint NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE courses (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title          varchar(255) NOT NULL,
+    description    text,
+    module         varchar(255),
+    duration_hours varchar(255),
+    badge_image    varchar(255),
+    created_at     timestamp(6) NOT NULL,
+    updated_at     timestamp(6) NOT NULL,
+    version        bigint NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_courses_updated_at_id ON courses (updated_at, id);
+-- Índices trigram: permiten que "lower(col) LIKE '%x%'" use índice en lugar de recorrer toda la tabla
+CREATE INDEX idx_courses_module_trgm ON courses USING gin (lower(module) gin_trgm_ops);
+CREATE INDEX idx_courses_title_trgm ON courses USING gin (lower(title) gin_trgm_ops);
+
+CREATE TABLE user_progress (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      bigint NOT NULL REFERENCES users (id),
+    course_id    bigint NOT NULL REFERENCES courses (id),
+    status       varchar(255) NOT NULL,
+    started_at   timestamp(6),
+    completed_at timestamp(6),
+    updated_at   timestamp(6) NOT NULL,
+    -- Clave de los upserts de progreso (INSERT ... ON CONFLICT (user_id, course_id))
+    CONSTRAINT uk_user_progress_user_course UNIQUE (user_id, course_id)
+);
+
+CREATE TABLE badges (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code        varchar(255) NOT NULL UNIQUE,
+    title       varchar(255) NOT NULL,
+    description text,
+    image_url   varchar(255),
+    created_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE badge_outbox (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      bigint NOT NULL,
+    course_id    bigint NOT NULL,
+    course_title varchar(255),
+    created_at   timestamp(6) NOT NULL
+);
+
+CREATE INDEX idx_badge_outbox_created_at ON badge_outbox (created_at);
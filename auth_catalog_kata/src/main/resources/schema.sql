@@ -0,0 +1,11 @@
+-- Se ejecuta después de que Hibernate cree/actualice las tablas (spring.jpa.defer-datasource-initialization)
+
+-- Índices trigram: permiten que "lower(col) LIKE '%x%'" use índice en lugar de recorrer toda la tabla
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_courses_module_trgm ON courses USING gin (lower(module) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING gin (lower(title) gin_trgm_ops);
+
+-- Clave de los upserts de progreso (INSERT ... ON CONFLICT (user_id, course_id)).
+-- Falla si ya hay filas duplicadas para un mismo usuario y curso: deben limpiarse antes.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_user_progress_user_course ON user_progress (user_id, course_id);
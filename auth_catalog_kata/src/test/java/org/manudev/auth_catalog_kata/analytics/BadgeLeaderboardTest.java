@@ -0,0 +1,172 @@
+package org.manudev.auth_catalog_kata.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.dto.AwardedBadgeDTO;
+import org.manudev.auth_catalog_kata.dto.LeaderboardDTO;
+import org.manudev.auth_catalog_kata.dto.LeaderboardEntryDTO;
+import org.manudev.auth_catalog_kata.repository.BadgeBatchRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para BadgeLeaderboard
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BadgeLeaderboard - Pruebas Unitarias")
+class BadgeLeaderboardTest {
+
+    @Mock
+    private BadgeBatchRepository badgeBatchRepository;
+
+    private BadgeLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new BadgeLeaderboard(badgeBatchRepository, 3, Duration.ofMinutes(30));
+    }
+
+    /**
+     * Test: La reconstrucción suma los recuentos por usuario y módulo.
+     *
+     * Evalúa:
+     * - Que la clasificación global sume todos los módulos de un usuario (y los códigos sin módulo)
+     * - Que cada módulo tenga su propia clasificación
+     * - Que solo se guarden las primeras posiciones, con empates ordenados por id
+     */
+    @Test
+    @DisplayName("rebuild - Debe reconstruir las clasificaciones desde badges")
+    void testRebuild_ShouldRankFromCounts() {
+        doAnswer(inv -> {
+            BadgeBatchRepository.BadgeCounts counts = inv.getArgument(0);
+            counts.accept(1L, "Backend", 2);
+            counts.accept(1L, "Frontend", 2);
+            counts.accept(2L, "Backend", 3);
+            counts.accept(3L, null, 3);
+            counts.accept(4L, "Frontend", 1);
+            counts.accept(5L, "Frontend", 3);
+            return 6L;
+        }).when(badgeBatchRepository).streamCountsByUserAndModule(any());
+
+        leaderboard.rebuild();
+
+        LeaderboardDTO global = leaderboard.top(null, 10);
+        assertThat(global.entries()).containsExactly(
+                new LeaderboardEntryDTO(1, 1L, 4),
+                new LeaderboardEntryDTO(2, 2L, 3),
+                new LeaderboardEntryDTO(3, 3L, 3));
+        assertThat(global.rebuiltAt()).isNotNull();
+        assertThat(leaderboard.top("Frontend", 2).entries())
+                .extracting(LeaderboardEntryDTO::userId).containsExactly(5L, 1L);
+        assertThat(leaderboard.top("Mobile", 10).entries()).isEmpty();
+    }
+
+    /**
+     * Test: Una insignia concedida mientras corre la consulta de la reconstrucción.
+     *
+     * Evalúa:
+     * - Que la consulta no la vea pero la clasificación publicada sí la cuente
+     * - Que aparezca también en la clasificación de su módulo
+     * - Que terminada la reconstrucción las insignias nuevas no se acumulen para la siguiente
+     */
+    @Test
+    @DisplayName("rebuild - Debe aplicar las insignias concedidas durante la consulta")
+    void testRebuild_AwardDuringQuery_ShouldNotBeLost() {
+        doAnswer(inv -> {
+            BadgeBatchRepository.BadgeCounts counts = inv.getArgument(0);
+            counts.accept(1L, "Backend", 2);
+            // El pipeline escribe mientras la consulta sigue leyendo
+            leaderboard.badgesAwarded(List.of(award(2L, "Backend"), award(2L, "Backend"), award(2L, "Backend")));
+            counts.accept(3L, "Backend", 1);
+            return 2L;
+        }).when(badgeBatchRepository).streamCountsByUserAndModule(any());
+
+        leaderboard.rebuild();
+
+        assertThat(leaderboard.top(null, 10).entries()).containsExactly(
+                new LeaderboardEntryDTO(1, 2L, 3),
+                new LeaderboardEntryDTO(2, 1L, 2),
+                new LeaderboardEntryDTO(3, 3L, 1));
+        assertThat(leaderboard.top("Backend", 1).entries())
+                .extracting(LeaderboardEntryDTO::userId).containsExactly(2L);
+
+        leaderboard.badgesAwarded(List.of(award(3L, "Backend")));
+        assertThat(leaderboard.top(null, 10).entries())
+                .extracting(LeaderboardEntryDTO::badges).containsExactly(3, 2, 2);
+    }
+
+    /**
+     * Test: Las insignias nuevas actualizan la clasificación sin consultar la BD.
+     *
+     * Evalúa:
+     * - Que un usuario fuera de la tabla entre al superar al último
+     * - Que un usuario ya en la tabla suba de posición
+     * - Que la lista publicada antes no cambie (instantánea inmutable)
+     */
+    @Test
+    @DisplayName("badgesAwarded - Debe actualizar las posiciones de forma incremental")
+    void testBadgesAwarded_ShouldUpdateIncrementally() {
+        leaderboard.badgesAwarded(List.of(award(1L, "Backend"), award(1L, "Backend"), award(2L, "Backend"), award(3L, null)));
+        LeaderboardDTO before = leaderboard.top(null, 10);
+
+        leaderboard.badgesAwarded(List.of(award(4L, "Backend"), award(4L, "Backend"), award(3L, null), award(3L, null)));
+
+        assertThat(before.entries()).extracting(LeaderboardEntryDTO::userId).containsExactly(1L, 2L, 3L);
+        assertThat(leaderboard.top(null, 10).entries()).containsExactly(
+                new LeaderboardEntryDTO(1, 3L, 3),
+                new LeaderboardEntryDTO(2, 1L, 2),
+                new LeaderboardEntryDTO(3, 4L, 2));
+        assertThat(leaderboard.top("Backend", 10).entries())
+                .extracting(LeaderboardEntryDTO::userId).containsExactly(1L, 4L, 2L);
+        verifyNoInteractions(badgeBatchRepository);
+    }
+
+    /**
+     * Test: La tabla incremental coincide con ordenar todos los totales.
+     *
+     * Evalúa:
+     * - Que tras miles de insignias aleatorias las primeras posiciones sean las de una ordenación completa
+     */
+    @Test
+    @DisplayName("badgesAwarded - Debe coincidir con una ordenación completa")
+    void testBadgesAwarded_ShouldMatchFullSort() {
+        Random random = new Random(42);
+        Map<Long, Integer> totals = new HashMap<>();
+        for (int batch = 0; batch < 200; batch++) {
+            List<AwardedBadgeDTO> awarded = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                long userId = 1 + random.nextInt(500);
+                awarded.add(award(userId, null));
+                totals.merge(userId, 1, Integer::sum);
+            }
+            leaderboard.badgesAwarded(awarded);
+        }
+
+        List<Long> expected = totals.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(3)
+                .map(Map.Entry::getKey)
+                .toList();
+        assertThat(leaderboard.top(null, 10).entries())
+                .isSortedAccordingTo(Comparator.comparingInt(LeaderboardEntryDTO::rank))
+                .extracting(LeaderboardEntryDTO::userId).containsExactlyElementsOf(expected);
+    }
+
+    private static AwardedBadgeDTO award(long userId, String module) {
+        return new AwardedBadgeDTO(userId, module);
+    }
+}
@@ -0,0 +1,134 @@
+package org.manudev.auth_catalog_kata.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.dto.CompletionBucketView;
+import org.manudev.auth_catalog_kata.dto.CourseAnalyticsDTO;
+import org.manudev.auth_catalog_kata.dto.CourseAnalyticsReportDTO;
+import org.manudev.auth_catalog_kata.dto.CourseRollupDTO;
+import org.manudev.auth_catalog_kata.dto.DailyLearnersView;
+import org.manudev.auth_catalog_kata.repository.IUserProgressRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CourseAnalytics
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CourseAnalytics - Pruebas Unitarias")
+class CourseAnalyticsTest {
+
+    @Mock
+    private IUserProgressRepository userProgressRepository;
+
+    private CourseAnalytics courseAnalytics;
+
+    @BeforeEach
+    void setUp() {
+        courseAnalytics = new CourseAnalytics(userProgressRepository, Duration.ofMinutes(15), 30, Duration.ZERO);
+    }
+
+    /**
+     * Test: La compactación reconstruye los contadores desde los GROUP BY.
+     *
+     * Evalúa:
+     * - Tasa de completado por curso y por módulo
+     * - Percentiles a partir de los buckets de duración
+     * - Usuarios activos de días cerrados y del día en curso
+     */
+    @Test
+    @DisplayName("compact - Debe reconstruir la analítica desde user_progress")
+    void testCompact_ShouldRebuildFromRollups() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(userProgressRepository.rollupByCourse()).thenReturn(List.of(
+                new CourseRollupDTO(1L, "Backend", 10L, 4L),
+                new CourseRollupDTO(2L, "Backend", 10L, 6L)));
+        when(userProgressRepository.completionBuckets(anyInt())).thenReturn(List.of(
+                bucket(1L, 3, 3L), bucket(1L, 6, 1L), bucket(2L, 3, 6L)));
+        when(userProgressRepository.dailyLearners(any())).thenReturn(List.of(daily(yesterday, 5L)));
+        when(userProgressRepository.learnerIdsSince(any())).thenReturn(List.of(7L, 8L));
+
+        courseAnalytics.compact();
+        CourseAnalyticsReportDTO report = courseAnalytics.report();
+
+        CourseAnalyticsDTO first = report.courses().get(0);
+        assertThat(first.completionRate()).isEqualTo(0.4);
+        assertThat(first.p50CompletionSeconds()).isEqualTo(8 * 60);
+        assertThat(first.p90CompletionSeconds()).isEqualTo(64 * 60);
+        assertThat(report.modules()).singleElement().satisfies(module -> {
+            assertThat(module.module()).isEqualTo("Backend");
+            assertThat(module.completionRate()).isEqualTo(0.5);
+        });
+        assertThat(report.dailyActiveLearners()).extracting(d -> d.learners()).containsExactly(5L, 2L);
+        assertThat(report.compactedAt()).isNotNull();
+    }
+
+    /**
+     * Test: Los cambios de progreso se suman sin consultar la BD.
+     *
+     * Evalúa:
+     * - Empezar un curso existente no cuenta otra vez
+     * - Completar suma el completado, la duración y el usuario activo del día
+     * - El informe se sirve sin tocar el repositorio
+     */
+    @Test
+    @DisplayName("courseCompleted - Debe actualizar los contadores de forma incremental")
+    void testIncrementalUpdates_ShouldNotQueryRepository() {
+        LocalDateTime now = LocalDateTime.now();
+        courseAnalytics.courseStarted(1L, 3L, true, now);
+        courseAnalytics.courseStarted(1L, 3L, false, now);
+        courseAnalytics.courseStarted(2L, 3L, true, now);
+        courseAnalytics.courseCompleted(2L, 3L, false, now.minusMinutes(90), now);
+
+        CourseAnalyticsDTO course = courseAnalytics.report().courses().get(0);
+
+        assertThat(course.started()).isEqualTo(2);
+        assertThat(course.completed()).isEqualTo(1);
+        assertThat(course.completionRate()).isEqualTo(0.5);
+        assertThat(course.p50CompletionSeconds()).isEqualTo(128 * 60);
+        assertThat(courseAnalytics.report().dailyActiveLearners()).singleElement()
+                .satisfies(day -> assertThat(day.learners()).isEqualTo(2));
+        verifyNoInteractions(userProgressRepository);
+    }
+
+    /**
+     * Test: Buckets de duración.
+     */
+    @Test
+    @DisplayName("bucket - Debe duplicar la anchura de cada bucket")
+    void testBucket_ShouldDoubleWidth() {
+        assertThat(CourseAnalytics.bucket(59)).isZero();
+        assertThat(CourseAnalytics.bucket(60)).isEqualTo(1);
+        assertThat(CourseAnalytics.bucket(179)).isEqualTo(2);
+        assertThat(CourseAnalytics.bucket(8 * 60)).isEqualTo(4);
+        assertThat(CourseAnalytics.bucket(Long.MAX_VALUE)).isEqualTo(CourseAnalytics.BUCKETS - 1);
+        assertThat(CourseAnalytics.percentile(new long[CourseAnalytics.BUCKETS], 0.5)).isNull();
+    }
+
+    private static CompletionBucketView bucket(Long courseId, int bucket, Long completions) {
+        return new CompletionBucketView() {
+            public Long getCourseId() { return courseId; }
+            public Integer getBucket() { return bucket; }
+            public Long getCompletions() { return completions; }
+        };
+    }
+
+    private static DailyLearnersView daily(LocalDate day, Long learners) {
+        return new DailyLearnersView() {
+            public LocalDate getDay() { return day; }
+            public Long getLearners() { return learners; }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas unitarias para CourseCatalogCache
+ */
+@DisplayName("CourseCatalogCache - Pruebas Unitarias")
+class CourseCatalogCacheTest {
+
+    private CourseCatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CourseCatalogCache(100, 100, Duration.ofMinutes(10));
+    }
+
+    /**
+     * Test: Una escritura confirmada mientras una página se está cargando.
+     *
+     * Evalúa:
+     * - Que la página cargada con datos previos a la escritura no quede en cache
+     * - Que la siguiente lectura vuelva a cargarla y ya se quede
+     */
+    @Test
+    @DisplayName("getPage - No debe publicar una carga en curso durante una invalidación")
+    void testGetPage_EvictionDuringLoad_ShouldNotKeepStalePage() {
+        AtomicInteger loads = new AtomicInteger();
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        Page<CourseResponseDTO> stale = cache.getPage("Backend", pageable, () -> {
+            loads.incrementAndGet();
+            // El commit (sin transacción, se aplica al momento) llega antes de que la carga se publique
+            cache.evictCourse(1L, "Backend", "Backend");
+            return page("old");
+        });
+        assertThat(stale.getContent().get(0).title()).isEqualTo("old");
+
+        Page<CourseResponseDTO> fresh = cache.getPage("Backend", pageable, () -> {
+            loads.incrementAndGet();
+            return page("new");
+        });
+        Page<CourseResponseDTO> cached = cache.getPage("Backend", pageable, () -> {
+            loads.incrementAndGet();
+            return page("unexpected");
+        });
+
+        assertThat(fresh.getContent().get(0).title()).isEqualTo("new");
+        assertThat(cached).isSameAs(fresh);
+        assertThat(loads).hasValue(2);
+    }
+
+    private static Page<CourseResponseDTO> page(String title) {
+        return new PageImpl<>(List.of(course(title)), PageRequest.of(0, 20), 1);
+    }
+
+    private static CourseResponseDTO course(String title) {
+        return new CourseResponseDTO(1L, title, null, "Backend", "40", null, null, null, 0L);
+    }
+}
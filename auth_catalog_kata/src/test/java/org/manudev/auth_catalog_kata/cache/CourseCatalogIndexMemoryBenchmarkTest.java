@@ -0,0 +1,119 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.entities.Course;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Memoria por curso del índice por columnas frente a guardar objetos: un mapa de entidades Course
+ * (lo que retiene un contexto de persistencia o una cache de entidades) y la cache de DTOs por id.
+ * Los textos son distintos en cada curso y pesan igual en los tres casos; lo que cambia es todo lo demás.
+ *
+ * Ejecutar (conviene un heap fijo para que las medidas sean estables):
+ * mvn test -Dtest=CourseCatalogIndexMemoryBenchmarkTest -Dbench.memory.courses=1000000 -DargLine=-Xmx4g
+ */
+@EnabledIfSystemProperty(named = "bench.memory.courses", matches = "\\d+")
+@DisplayName("Índice del catálogo - Benchmark de memoria")
+class CourseCatalogIndexMemoryBenchmarkTest {
+
+    private static final String[] MODULES = {"Backend", "Frontend", "DevOps", "Data", "Mobile", "Security"};
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final int courses = Integer.getInteger("bench.memory.courses");
+
+    @Test
+    @DisplayName("Bytes retenidos por curso según la estructura")
+    void measureRetainedBytesPerCourse() {
+        double index = bytesPerCourse(() -> {
+            CourseCatalogIndex.Snapshot.Builder builder = new CourseCatalogIndex.Snapshot.Builder();
+            for (int i = 1; i <= courses; i++) {
+                builder.add(dto(i));
+            }
+            return builder.build();
+        });
+        double entities = bytesPerCourse(() -> {
+            Map<Long, Course> map = new HashMap<>();
+            for (int i = 1; i <= courses; i++) {
+                map.put((long) i, entity(i));
+            }
+            return map;
+        });
+        CourseCatalogCache cache = new CourseCatalogCache(courses, 1, Duration.ofHours(1));
+        double dtoCache = bytesPerCourse(() -> {
+            for (int i = 1; i <= courses; i++) {
+                int id = i;
+                cache.getById((long) id, () -> dto(id));
+            }
+            return cache;
+        });
+        double texts = bytesPerCourse(() -> strings(i -> "Course title " + i, i -> "Description of course number " + i));
+
+        System.out.printf("%-28s %12s %16s%n", "structure", "bytes/course", "without texts");
+        print("columnar index", index, texts);
+        print("Course entity map", entities, texts);
+        print("CourseCatalogCache (DTOs)", dtoCache, texts);
+
+        assertThat(index).isLessThan(entities);
+    }
+
+    private double bytesPerCourse(Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object retained = build.get();
+        long after = usedAfterGc();
+        assertThat(retained).isNotNull();
+        return (after - before) / (double) courses;
+    }
+
+    private Object strings(IntFunction<String> title, IntFunction<String> description) {
+        String[][] values = new String[2][courses];
+        for (int i = 0; i < courses; i++) {
+            values[0][i] = title.apply(i + 1);
+            values[1][i] = description.apply(i + 1);
+        }
+        return values;
+    }
+
+    private static void print(String structure, double bytes, double texts) {
+        System.out.printf("%-28s %12.1f %16.1f%n", structure, bytes, bytes - texts);
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static CourseResponseDTO dto(int i) {
+        return new CourseResponseDTO((long) i, "Course title " + i, "Description of course number " + i,
+                MODULES[i % MODULES.length], String.valueOf(10 + i % 30), "badge-" + (i % 20) + ".png",
+                BASE.plusMinutes(i), BASE.plusMinutes(i).plusSeconds(7), (long) (i % 3));
+    }
+
+    private static Course entity(int i) {
+        CourseResponseDTO dto = dto(i);
+        return Course.builder()
+                .id(dto.id())
+                .title(dto.title())
+                .description(dto.description())
+                .module(dto.module())
+                .durationHours(dto.durationHours())
+                .badgeImage(dto.badgeImage())
+                .createdAt(dto.createdAt())
+                .updatedAt(dto.updatedAt())
+                .version(dto.version())
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.repository.CourseBatchRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CourseCatalogIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CourseCatalogIndex - Pruebas Unitarias")
+class CourseCatalogIndexTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_789);
+
+    @Mock
+    private CourseBatchRepository courseBatchRepository;
+
+    private CourseCatalogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseCatalogIndex(courseBatchRepository, true, Duration.ofMinutes(10));
+    }
+
+    /**
+     * Test: La instantánea responde igual que las consultas del repositorio.
+     *
+     * Evalúa:
+     * - Que un curso se reconstruya campo a campo, fechas con nanosegundos incluidas
+     * - Que el filtro por módulo sea un "contiene" sin distinguir mayúsculas y una varios módulos
+     * - Que las páginas y el keyset recorran los cursos en orden de id
+     */
+    @Test
+    @DisplayName("rebuild - Debe servir cursos, páginas y keyset desde memoria")
+    void testRebuild_ShouldServeReads() {
+        streamCourses(course(1, "Backend"), course(2, "Frontend"), course(5, "Backend Java"), course(7, null), course(9, "Backend"));
+
+        index.rebuild();
+        CourseCatalogIndex.Snapshot snapshot = index.snapshot();
+
+        assertThat(snapshot.get(5)).isEqualTo(course(5, "Backend Java"));
+        assertThat(snapshot.get(7).module()).isNull();
+        assertThat(snapshot.get(3)).isNull();
+        Page<CourseResponseDTO> page = snapshot.page(" backend ", PageRequest.of(1, 2));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(CourseResponseDTO::id).containsExactly(9L);
+        assertThat(snapshot.page(null, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(5);
+        assertThat(snapshot.after("java", 0, 10)).extracting(CourseResponseDTO::id).containsExactly(5L);
+        assertThat(snapshot.after(null, 2, 2)).extracting(CourseResponseDTO::id).containsExactly(5L, 7L);
+        assertThat(snapshot.after("backend", 4, 10)).extracting(CourseResponseDTO::id).containsExactly(5L, 9L);
+        assertThat(snapshot.page("mobile", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    /**
+     * Test: Las escrituras publican una instantánea nueva sin tocar la anterior.
+     *
+     * Evalúa:
+     * - Alta (al final y en medio), cambio de módulo y borrado
+     * - Que una lectura que ya tenía la instantánea anterior siga viendo los datos de antes
+     * - Que una actualización con versión más antigua que la guardada se ignore
+     */
+    @Test
+    @DisplayName("courseSaved - Debe aplicar las escrituras con copy-on-write")
+    void testWrites_ShouldCopyOnWrite() {
+        streamCourses(course(1, "Backend"), course(4, "Frontend"));
+        index.rebuild();
+        CourseCatalogIndex.Snapshot before = index.snapshot();
+
+        index.courseSaved(course(8, "Mobile"));
+        index.courseSaved(course(2, "Backend"));
+        index.courseSaved(withVersion(course(4, "Backend"), 1L));
+        index.courseSaved(withVersion(course(4, "Frontend"), 0L));
+        index.courseDeleted(1L);
+        CourseCatalogIndex.Snapshot after = index.snapshot();
+
+        assertThat(before.size()).isEqualTo(2);
+        assertThat(before.get(4).module()).isEqualTo("Frontend");
+        assertThat(after.after(null, 0, 10)).extracting(CourseResponseDTO::id).containsExactly(2L, 4L, 8L);
+        assertThat(after.after("backend", 0, 10)).extracting(CourseResponseDTO::id).containsExactly(2L, 4L);
+        assertThat(after.page("frontend", PageRequest.of(0, 10))).isEmpty();
+        assertThat(after.get(4).version()).isEqualTo(1L);
+        assertThat(after.get(8).module()).isEqualTo("Mobile");
+    }
+
+    /**
+     * Test: Una escritura confirmada mientras se reconstruye no se pierde.
+     *
+     * Evalúa:
+     * - Que los cambios llegados durante la lectura del catálogo se apliquen sobre el resultado
+     */
+    @Test
+    @DisplayName("rebuild - Debe reaplicar las escrituras que llegan durante la lectura")
+    void testRebuild_ShouldReplayConcurrentWrites() {
+        doAnswer(inv -> {
+            Consumer<CourseResponseDTO> consumer = inv.getArgument(0);
+            consumer.accept(course(1, "Backend"));
+            index.courseDeleted(1L);
+            index.courseSaved(course(3, "Backend"));
+            consumer.accept(course(2, "Backend"));
+            return 2L;
+        }).when(courseBatchRepository).streamAllFromPrimary(any());
+
+        index.rebuild();
+
+        assertThat(index.snapshot().after(null, 0, 10)).extracting(CourseResponseDTO::id).containsExactly(2L, 3L);
+    }
+
+    private void streamCourses(CourseResponseDTO... courses) {
+        doAnswer(inv -> {
+            Consumer<CourseResponseDTO> consumer = inv.getArgument(0);
+            List.of(courses).forEach(consumer);
+            return (long) courses.length;
+        }).when(courseBatchRepository).streamAllFromPrimary(any());
+    }
+
+    private static CourseResponseDTO course(long id, String module) {
+        return new CourseResponseDTO(id, "Course " + id, "Description " + id, module, "40", "badge.png",
+                CREATED, CREATED.plusDays(id), 0L);
+    }
+
+    private static CourseResponseDTO withVersion(CourseResponseDTO course, Long version) {
+        return new CourseResponseDTO(course.id(), course.title(), course.description(), course.module(),
+                course.durationHours(), course.badgeImage(), course.createdAt(), course.updatedAt(), version);
+    }
+}
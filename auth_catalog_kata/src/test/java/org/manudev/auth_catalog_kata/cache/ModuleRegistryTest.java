@@ -0,0 +1,105 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.dto.ModuleCatalogDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCountDTO;
+import org.manudev.auth_catalog_kata.repository.ICourseRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ModuleRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ModuleRegistry - Pruebas Unitarias")
+class ModuleRegistryTest {
+
+    @Mock
+    private ICourseRepository courseRepository;
+
+    /**
+     * Test: Lecturas concurrentes con la instantánea caducada.
+     *
+     * Evalúa:
+     * - Que solo un hilo ejecute el GROUP BY
+     * - Que el resto reciba la instantánea anterior sin esperar a la recarga
+     */
+    @Test
+    @DisplayName("catalog - Una sola recarga y el resto sirve la instantánea anterior")
+    void testCatalog_StaleConcurrentReaders_ShouldReloadOnce() throws Exception {
+        ModuleRegistry registry = new ModuleRegistry(courseRepository, Duration.ofNanos(1));
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(courseRepository.countCoursesByModule())
+                .thenReturn(List.of(new ModuleCountDTO("Backend", 1L)))
+                .thenAnswer(invocation -> {
+                    reloading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(new ModuleCountDTO("Backend", 1L), new ModuleCountDTO("Frontend", 1L));
+                });
+        ModuleCatalogDTO first = registry.catalog();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<ModuleCatalogDTO> refresher = executor.submit(registry::catalog);
+            assertThat(reloading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<CompletableFuture<ModuleCatalogDTO>> readers = IntStream.range(0, 7)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(registry::catalog, executor))
+                    .toList();
+            for (CompletableFuture<ModuleCatalogDTO> reader : readers) {
+                assertThat(reader.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+
+            release.countDown();
+            assertThat(refresher.get(5, TimeUnit.SECONDS).modules()).containsExactly("Backend", "Frontend");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(courseRepository, times(2)).countCoursesByModule();
+    }
+
+    /**
+     * Test: Lecturas concurrentes sin instantánea (arranque).
+     *
+     * Evalúa:
+     * - Que esperen a una sola carga en vez de lanzar una cada una
+     */
+    @Test
+    @DisplayName("catalog - Sin instantánea todas las lecturas esperan a una sola carga")
+    void testCatalog_ColdConcurrentReaders_ShouldLoadOnce() throws Exception {
+        ModuleRegistry registry = new ModuleRegistry(courseRepository, Duration.ofMinutes(5));
+        when(courseRepository.countCoursesByModule()).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return List.of(new ModuleCountDTO("Backend", 1L));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<ModuleCatalogDTO>> readers = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(registry::catalog, executor))
+                    .toList();
+            for (CompletableFuture<ModuleCatalogDTO> reader : readers) {
+                assertThat(reader.get(5, TimeUnit.SECONDS).modules()).containsExactly("Backend");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(courseRepository, times(1)).countCoursesByModule();
+    }
+}
@@ -0,0 +1,54 @@
+package org.manudev.auth_catalog_kata.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas unitarias para PeriodicTask
+ */
+@DisplayName("PeriodicTask - Pruebas Unitarias")
+class PeriodicTaskTest {
+
+    /**
+     * Test: Una ejecución que falla no detiene la tarea.
+     *
+     * Evalúa:
+     * - Que se ejecute al arrancar, en su hilo con nombre
+     * - Que tras una excepción siga aceptando ejecuciones (runNow)
+     * - Que runNow sin arrancar o tras parar no haga nada
+     */
+    @Test
+    @DisplayName("start/runNow - Debe seguir ejecutándose tras un fallo")
+    void testRunNow_AfterFailure_ShouldKeepRunning() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch secondRun = new CountDownLatch(2);
+        String[] threadName = new String[1];
+        PeriodicTask task = new PeriodicTask("test-task", Duration.ofHours(1), () -> {
+            threadName[0] = Thread.currentThread().getName();
+            runs.incrementAndGet();
+            secondRun.countDown();
+            if (runs.get() == 1) {
+                throw new IllegalStateException("db down");
+            }
+        });
+
+        task.runNow();
+        assertThat(runs).hasValue(0);
+
+        task.start();
+        task.runNow();
+        assertThat(secondRun.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threadName[0]).isEqualTo("test-task");
+
+        task.stop();
+        task.runNow();
+        assertThat(runs).hasValue(2);
+    }
+}
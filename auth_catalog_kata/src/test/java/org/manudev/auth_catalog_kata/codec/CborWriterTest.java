@@ -0,0 +1,122 @@
+package org.manudev.auth_catalog_kata.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseSliceDTO;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del codificador CBOR con los vectores del apéndice A de RFC 8949
+ */
+@DisplayName("CborWriter - Codificación CBOR")
+class CborWriterTest {
+
+    /**
+     * Test: Enteros, textos y valores simples.
+     *
+     * Evalúa:
+     * - Que cada argumento use la cabecera más corta (1, 2, 3, 5 o 9 bytes)
+     * - Que los negativos se codifiquen como -1 - n
+     * - Que el UTF-8 de 2, 3 y 4 bytes (pares surrogate) sea correcto
+     */
+    @Test
+    @DisplayName("Debe producir los bytes de los vectores de RFC 8949")
+    void testWriter_Rfc8949Vectors_ShouldMatch() {
+        assertEncoded(w -> w.writeLong(0), "00");
+        assertEncoded(w -> w.writeLong(23), "17");
+        assertEncoded(w -> w.writeLong(24), "1818");
+        assertEncoded(w -> w.writeLong(1000), "1903e8");
+        assertEncoded(w -> w.writeLong(1000000), "1a000f4240");
+        assertEncoded(w -> w.writeLong(1000000000000L), "1b000000e8d4a51000");
+        assertEncoded(w -> w.writeLong(-1), "20");
+        assertEncoded(w -> w.writeLong(-1000), "3903e7");
+        assertEncoded(w -> w.writeLong(Long.MIN_VALUE), "3b7fffffffffffffff");
+        assertEncoded(w -> w.writeString(""), "60");
+        assertEncoded(w -> w.writeString("IETF"), "6449455446");
+        assertEncoded(w -> w.writeString("ü"), "62c3bc");
+        assertEncoded(w -> w.writeString("水"), "63e6b0b4");
+        assertEncoded(w -> w.writeString("𐅑"), "64f0908591");
+        assertEncoded(w -> w.writeBoolean(true), "f5");
+        assertEncoded(w -> w.writeBoolean(false), "f4");
+        assertEncoded(CborWriter::writeNull, "f6");
+        assertEncoded(w -> w.writeArrayHeader(3).writeLong(1).writeLong(2).writeLong(3), "83010203");
+        assertEncoded(w -> w.writeMapHeader(1).writeString("a").writeLong(1), "a1616101");
+    }
+
+    /**
+     * Test: Reutilización del buffer.
+     *
+     * Evalúa:
+     * - Que tras reset no queden restos de la codificación anterior
+     * - Que el buffer crezca si el valor no cabe
+     */
+    @Test
+    @DisplayName("Debe reutilizar y hacer crecer el buffer")
+    void testWriter_ResetAndGrow_ShouldStartClean() {
+        CborWriter writer = new CborWriter(2);
+        writer.writeString("a".repeat(300));
+        assertThat(writer.toByteArray()).hasSize(303);
+        assertThat(writer.capacity()).isGreaterThanOrEqualTo(303);
+
+        writer.reset();
+        writer.writeLong(1);
+        assertThat(writer.toByteArray()).containsExactly(0x01);
+    }
+
+    /**
+     * Test: Sobre recortado de una página por keyset.
+     *
+     * Evalúa:
+     * - Que los nombres de campo vayan una vez y cada curso sea un array de 9 valores
+     * - Que los nulos y las fechas ISO-8601 se codifiquen como en JSON
+     */
+    @Test
+    @DisplayName("Debe codificar una página por keyset con el sobre recortado")
+    void testCoursePageCbor_Slice_ShouldUseTrimmedEnvelope() {
+        CoursePageCbor codec = new CoursePageCbor(1, DataSize.ofKilobytes(64));
+        LocalDateTime at = LocalDateTime.of(2025, 1, 1, 10, 0, 30);
+        CourseSliceDTO slice = new CourseSliceDTO(List.of(
+                new CourseResponseDTO(7L, "T", null, "M", "40", null, at, at, 2L)), 1, false, null);
+
+        CborWriter expected = new CborWriter(64).writeMapHeader(4).writeString("fields").writeArrayHeader(9);
+        CoursePageCbor.FIELDS.forEach(expected::writeString);
+        expected.writeString("rows").writeArrayHeader(1).writeArrayHeader(9)
+                .writeLong(7).writeString("T").writeNull().writeString("M").writeString("40").writeNull()
+                .writeString("2025-01-01T10:00:30").writeString("2025-01-01T10:00:30").writeLong(2)
+                .writeString("hasNext").writeBoolean(false)
+                .writeString("nextCursor").writeNull();
+
+        assertThat(codec.encode(slice)).containsExactly(expected.toByteArray());
+        // El segundo uso sale del pool y no arrastra bytes del primero
+        assertThat(codec.encode(slice)).containsExactly(expected.toByteArray());
+    }
+
+    /**
+     * Test: Negociación por Accept.
+     */
+    @Test
+    @DisplayName("Debe preferir CBOR solo si se pide explícitamente sin perder frente a JSON")
+    void testPreferred_AcceptHeaders_ShouldNegotiate() {
+        assertThat(CoursePageCbor.preferred("application/cbor")).isTrue();
+        assertThat(CoursePageCbor.preferred("application/cbor, application/json;q=0.5")).isTrue();
+        assertThat(CoursePageCbor.preferred("application/json, application/cbor;q=0.5")).isFalse();
+        assertThat(CoursePageCbor.preferred("*/*")).isFalse();
+        assertThat(CoursePageCbor.preferred("application/json")).isFalse();
+        assertThat(CoursePageCbor.preferred(null)).isFalse();
+        assertThat(CoursePageCbor.preferred("not a media type")).isFalse();
+    }
+
+    private static void assertEncoded(Consumer<CborWriter> write, String hex) {
+        CborWriter writer = new CborWriter(16);
+        write.accept(writer);
+        assertThat(HexFormat.of().formatHex(writer.toByteArray())).isEqualTo(hex);
+    }
+}
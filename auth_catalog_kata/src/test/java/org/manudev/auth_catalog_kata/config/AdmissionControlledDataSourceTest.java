@@ -0,0 +1,71 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para el control de admisión de conexiones.
+ */
+@DisplayName("AdmissionControlledDataSource - Pruebas Unitarias")
+class AdmissionControlledDataSourceTest {
+
+    /**
+     * Test: El permiso se libera al cerrar la conexión, una sola vez aunque se cierre dos veces.
+     */
+    @Test
+    @DisplayName("getConnection - Debe liberar el permiso al cerrar la conexión")
+    void testGetConnection_Close_ShouldReleasePermitOnce() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 2, 10, 100);
+
+        Connection admitted = dataSource.getConnection();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+
+        admitted.close();
+        admitted.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+        verify(connection, times(2)).close();
+    }
+
+    /**
+     * Test: Sin permisos disponibles la espera termina con una excepción transitoria.
+     */
+    @Test
+    @DisplayName("getConnection - Debe fallar tras el timeout cuando no hay permisos")
+    void testGetConnection_NoPermits_ShouldTimeOut() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 10, 50);
+
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("timed out");
+    }
+
+    /**
+     * Test: Si el pool subyacente falla, el permiso no se pierde.
+     */
+    @Test
+    @DisplayName("getConnection - Debe devolver el permiso si el pool falla")
+    void testGetConnection_TargetFails_ShouldReleasePermit() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool down"));
+        AdmissionControlledDataSource dataSource = new AdmissionControlledDataSource(target, 1, 10, 50);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool down");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
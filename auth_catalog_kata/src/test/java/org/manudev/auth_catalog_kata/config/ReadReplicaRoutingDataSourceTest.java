@@ -0,0 +1,169 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del enrutado primario/réplica con dos bases H2 en memoria como sustitutas de Postgres.
+ * Cada base tiene una tabla "node" con su nombre: la consulta dice a qué nodo fue la transacción.
+ */
+@DisplayName("ReadReplicaRoutingDataSource - Pruebas Unitarias")
+class ReadReplicaRoutingDataSourceTest {
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replica, new ReadYourWritesWindow(Duration.ofMinutes(1), 100)));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    /**
+     * Test: Una transacción de solo lectura va a la réplica y una de escritura al primario.
+     *
+     * Evalúa:
+     * - readOnly = true se resuelve contra la réplica
+     * - Una transacción normal se resuelve contra el primario
+     */
+    @Test
+    @DisplayName("determineCurrentLookupKey - Debe separar lecturas y escrituras")
+    void testRouting_ReadOnlyAndWrite_ShouldUseReplicaAndPrimary() {
+        authenticate("ana@kata.dev");
+
+        assertThat(nodeFor(reads)).isEqualTo("replica");
+        assertThat(nodeFor(writes)).isEqualTo("primary");
+    }
+
+    /**
+     * Test: Tras escribir, las lecturas del mismo usuario van al primario durante la ventana.
+     *
+     * Evalúa:
+     * - El autor de la escritura lee del primario (read-your-writes)
+     * - Otro usuario sigue leyendo de la réplica
+     */
+    @Test
+    @DisplayName("determineCurrentLookupKey - Debe leer del primario tras una escritura propia")
+    void testRouting_AfterOwnWrite_ShouldReadFromPrimary() {
+        authenticate("ana@kata.dev");
+        assertThat(nodeFor(writes)).isEqualTo("primary");
+        assertThat(nodeFor(reads)).isEqualTo("primary");
+
+        authenticate("luis@kata.dev");
+        assertThat(nodeFor(reads)).isEqualTo("replica");
+    }
+
+    /**
+     * Test: Las lecturas anónimas también van a la réplica.
+     *
+     * Evalúa:
+     * - Sin usuario autenticado no hay ventana que consultar
+     */
+    @Test
+    @DisplayName("determineCurrentLookupKey - Debe enviar lecturas anónimas a la réplica")
+    void testRouting_Anonymous_ShouldUseReplica() {
+        assertThat(nodeFor(reads)).isEqualTo("replica");
+    }
+
+    /**
+     * Test: Las cargas que se cachean leen del primario sin marcar al usuario como escritor.
+     *
+     * Evalúa:
+     * - Una lectura dentro de onPrimary (y una anidada) va al primario
+     * - Al salir las lecturas vuelven a la réplica: onPrimary no abre la ventana de read-your-writes
+     */
+    @Test
+    @DisplayName("onPrimary - Debe enviar al primario las lecturas de una carga de cache")
+    void testOnPrimary_ReadOnly_ShouldReadFromPrimary() {
+        authenticate("ana@kata.dev");
+
+        assertThat(ReadReplicaRoutingDataSource.onPrimary(() -> nodeFor(reads))).isEqualTo("primary");
+        assertThat(ReadReplicaRoutingDataSource.onPrimary(
+                () -> ReadReplicaRoutingDataSource.onPrimary(() -> nodeFor(reads)) + "/" + nodeFor(reads)))
+                .isEqualTo("primary/primary");
+        assertThat(nodeFor(reads)).isEqualTo("replica");
+    }
+
+    /**
+     * Test: Lectura en otro hilo dentro de la ventana, como la actividad del dashboard.
+     *
+     * Evalúa:
+     * - Que con SecurityContextTaskDecorator la lectura en applicationTaskExecutor vaya al primario
+     * - Que sin él el hilo no tiene usuario y acabaría en la réplica
+     */
+    @Test
+    @DisplayName("determineCurrentLookupKey - Debe leer del primario en un hilo del executor tras una escritura propia")
+    void testRouting_AfterOwnWrite_OffThreadRead_ShouldReadFromPrimary() {
+        authenticate("ana@kata.dev");
+        assertThat(nodeFor(writes)).isEqualTo("primary");
+
+        ThreadPoolTaskExecutor decorated = executor(new SecurityContextTaskDecorator());
+        ThreadPoolTaskExecutor plain = executor(null);
+        try {
+            assertThat(CompletableFuture.supplyAsync(() -> nodeFor(reads), decorated).join()).isEqualTo("primary");
+            assertThat(CompletableFuture.supplyAsync(() -> nodeFor(reads), plain).join()).isEqualTo("replica");
+        } finally {
+            decorated.shutdown();
+            plain.shutdown();
+        }
+    }
+
+    private static ThreadPoolTaskExecutor executor(SecurityContextTaskDecorator decorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setTaskDecorator(decorator);
+        executor.initialize();
+        return executor;
+    }
+
+    // Nodo al que se resolvió la transacción
+    private String nodeFor(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,39 @@
+package org.manudev.auth_catalog_kata.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas unitarias para la comprobación de runtime del perfil "virtual".
+ */
+@DisplayName("VirtualThreadsConfig - Pruebas Unitarias")
+class VirtualThreadsConfigTest {
+
+    /**
+     * Test: Con un runtime anterior a Java 21 el perfil para el arranque.
+     * Evalúa:
+     * - Se lanza IllegalStateException indicando la versión requerida y la actual
+     */
+    @Test
+    @DisplayName("requireVirtualThreads - Debe fallar con Java 17")
+    void testRequireVirtualThreads_Java17_ShouldThrow() {
+        assertThatThrownBy(() -> VirtualThreadsConfig.requireVirtualThreads(17))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21+")
+                .hasMessageContaining("Java 17");
+    }
+
+    /**
+     * Test: Con Java 21 o posterior el perfil arranca.
+     * Evalúa:
+     * - No se lanza ninguna excepción
+     */
+    @Test
+    @DisplayName("requireVirtualThreads - Debe aceptar Java 21")
+    void testRequireVirtualThreads_Java21_ShouldPass() {
+        assertThatCode(() -> VirtualThreadsConfig.requireVirtualThreads(21)).doesNotThrowAnyException();
+    }
+}
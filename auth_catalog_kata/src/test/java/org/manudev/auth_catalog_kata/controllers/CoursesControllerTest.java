@@ -0,0 +1,182 @@
+package org.manudev.auth_catalog_kata.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.codec.CoursePageCbor;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseVersionDTO;
+import org.manudev.auth_catalog_kata.services.interfaces.ICoursesService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de las peticiones condicionales de CoursesController (ETag / Last-Modified)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoursesController - Peticiones condicionales")
+class CoursesControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_456_000);
+
+    @Mock
+    private ICoursesService coursesService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        CoursesController controller = new CoursesController(coursesService, JsonMapper.builder().build(),
+                new CoursePageCbor(1, DataSize.ofMegabytes(1)), "private, no-cache", "private, no-cache", "private, max-age=60");
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    /**
+     * Test: Revalidación de un curso con su ETag.
+     *
+     * Evalúa:
+     * - Que se responda 304 con el ETag y el Cache-Control configurado
+     * - Que el curso completo no se cargue
+     */
+    @Test
+    @DisplayName("getCourseById - Debe responder 304 sin cargar el curso si el ETag coincide")
+    void testGetCourseById_MatchingETag_ShouldReturnNotModified() throws Exception {
+        when(coursesService.getCourseVersion(1L)).thenReturn(Optional.of(new CourseVersionDTO(3L, UPDATED_AT)));
+        when(coursesService.getCourseById(1L)).thenReturn(new CourseResponseDTO(
+                1L, "Java Fundamentals", null, "Backend", "40", null, UPDATED_AT, UPDATED_AT, 3L));
+
+        MvcResult first = mockMvc.perform(get("/courses/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "private, no-cache"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/courses/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "private, no-cache"));
+
+        verify(coursesService, times(1)).getCourseById(1L);
+    }
+
+    /**
+     * Test: Un curso modificado invalida el ETag anterior.
+     */
+    @Test
+    @DisplayName("getCourseById - Debe responder 200 si la versión cambió")
+    void testGetCourseById_ChangedCourse_ShouldReturnBody() throws Exception {
+        when(coursesService.getCourseVersion(1L)).thenReturn(Optional.of(new CourseVersionDTO(4L, UPDATED_AT)));
+        when(coursesService.getCourseById(1L)).thenReturn(new CourseResponseDTO(
+                1L, "Java Fundamentals", null, "Backend", "40", null, UPDATED_AT, UPDATED_AT, 4L));
+
+        mockMvc.perform(get("/courses/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    /**
+     * Test: PUT con If-Match.
+     *
+     * Evalúa:
+     * - Que la versión del ETag llegue al servicio como versión esperada
+     * - Que la respuesta lleve el ETag de la versión nueva
+     */
+    @Test
+    @DisplayName("updateCourse - Debe pasar la versión de If-Match y devolver el ETag nuevo")
+    void testUpdateCourse_IfMatch_ShouldPassExpectedVersion() throws Exception {
+        when(coursesService.updateCourseById(eq(1L), any(), eq(3L))).thenReturn(new CourseResponseDTO(
+                1L, "Java Fundamentals", "New", "Backend", "40", null, UPDATED_AT, UPDATED_AT, 4L));
+
+        mockMvc.perform(put("/courses/update/1")
+                        .header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"New\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    /**
+     * Test: If-Match con el ETag de otro curso.
+     */
+    @Test
+    @DisplayName("updateCourse - Debe responder 412 si If-Match no es un ETag del curso")
+    void testUpdateCourse_ForeignETag_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/courses/update/1")
+                        .header("If-Match", "\"2-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"New\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(coursesService, never()).updateCourseById(any(), any(), any());
+    }
+
+    /**
+     * Test: Revalidación de un listado con la versión del catálogo.
+     *
+     * Evalúa:
+     * - Que se responda 304 sin ejecutar el listado
+     */
+    @Test
+    @DisplayName("listCourses - Debe responder 304 sin listar si la versión del catálogo no cambió")
+    void testListCourses_MatchingCatalogETag_ShouldReturnNotModified() throws Exception {
+        when(coursesService.getCatalogETag()).thenReturn("\"catalog-a-3-1\"");
+
+        mockMvc.perform(get("/courses").param("page", "0").header("If-None-Match", "\"catalog-a-3-1\""))
+                .andExpect(status().isNotModified());
+
+        verify(coursesService, never()).listCourses(any());
+    }
+
+    /**
+     * Test: Negociación de CBOR en el listado.
+     *
+     * Evalúa:
+     * - Que "Accept: application/cbor" reciba CBOR con un ETag propio y "Vary: Accept"
+     * - Que el ETag JSON no revalide la representación CBOR
+     */
+    @Test
+    @DisplayName("listCourses - Debe responder CBOR con su propio ETag si el cliente lo pide")
+    void testListCourses_AcceptCbor_ShouldReturnCbor() throws Exception {
+        when(coursesService.getCatalogETag()).thenReturn("\"catalog-a-3-1\"");
+        when(coursesService.listCourses(any())).thenReturn(new PageImpl<>(List.of(new CourseResponseDTO(
+                1L, "Java Fundamentals", null, "Backend", "40", null, UPDATED_AT, UPDATED_AT, 3L)), PageRequest.of(0, 20), 1));
+
+        MvcResult result = mockMvc.perform(get("/courses").header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/cbor"))
+                .andExpect(header().string("ETag", "\"catalog-a-3-1-cbor\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+        // Mapa de 5 entradas cuya primera clave es "fields"
+        assertThat(result.getResponse().getContentAsByteArray()).startsWith(0xa5, 0x66, 'f', 'i', 'e', 'l', 'd', 's');
+
+        mockMvc.perform(get("/courses").header("Accept", "application/cbor").header("If-None-Match", "\"catalog-a-3-1\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/courses").header("Accept", "application/cbor").header("If-None-Match", "\"catalog-a-3-1-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
+    }
+}
@@ -0,0 +1,119 @@
+package org.manudev.auth_catalog_kata.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.analytics.BadgeLeaderboard;
+import org.manudev.auth_catalog_kata.dto.AwardedBadgeDTO;
+import org.manudev.auth_catalog_kata.dto.BadgeAwardEvent;
+import org.manudev.auth_catalog_kata.repository.BadgeBatchRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para BadgeAwardPipeline
+ */
+@DisplayName("BadgeAwardPipeline - Pruebas Unitarias")
+class BadgeAwardPipelineTest {
+
+    private final BadgeBatchRepository badgeBatchRepository = mock(BadgeBatchRepository.class);
+    private final BadgeLeaderboard leaderboard = mock(BadgeLeaderboard.class);
+    private final List<List<BadgeAwardEvent>> written = Collections.synchronizedList(new ArrayList<>());
+    private BadgeAwardPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    /**
+     * Test: Los eventos se escriben agrupados.
+     *
+     * Evalúa:
+     * - Que un grupo se escriba al alcanzar batchSize sin esperar al intervalo
+     * - Que el resto se escriba al vencer el intervalo
+     * - Que las insignias insertadas lleguen a la clasificación
+     */
+    @Test
+    @DisplayName("submit - Debe agrupar los eventos por tamaño y por tiempo")
+    void testSubmit_ShouldGroupCommit() {
+        recordWrites();
+        pipeline = new BadgeAwardPipeline(badgeBatchRepository, leaderboard, 100, 3, Duration.ofMillis(300), Duration.ofMinutes(10));
+        for (int i = 1; i <= 5; i++) {
+            pipeline.submit(event(i));
+        }
+
+        pipeline.start();
+
+        verify(badgeBatchRepository, timeout(2000).times(2)).awardBatch(any());
+        assertThat(written).extracting(List::size).containsExactly(3, 2);
+        verify(leaderboard, timeout(2000).times(2)).badgesAwarded(anyList());
+    }
+
+    /**
+     * Test: Una cola llena no bloquea.
+     *
+     * Evalúa:
+     * - Que submit devuelva false en lugar de esperar cuando no hay hueco
+     */
+    @Test
+    @DisplayName("submit - Debe rechazar sin bloquear cuando la cola está llena")
+    void testSubmit_FullQueue_ShouldRejectWithoutBlocking() {
+        pipeline = new BadgeAwardPipeline(badgeBatchRepository, leaderboard, 2, 10, Duration.ofMillis(50), Duration.ofMinutes(10));
+
+        assertThat(pipeline.submit(event(1))).isTrue();
+        assertThat(pipeline.submit(event(2))).isTrue();
+        assertThat(pipeline.submit(event(3))).isFalse();
+        assertThat(pipeline.pending()).isEqualTo(2);
+    }
+
+    /**
+     * Test: Al arrancar se entregan los eventos pendientes del outbox.
+     *
+     * Evalúa:
+     * - Que el relay lea el outbox antes de esperar eventos nuevos
+     * - Que un fallo de escritura no pare el hilo escritor
+     */
+    @Test
+    @DisplayName("start - Debe reentregar el outbox y seguir tras un fallo de escritura")
+    void testStart_ShouldRelayOutboxAndSurviveFailures() {
+        when(badgeBatchRepository.findPending(any(), anyInt())).thenReturn(List.of(event(1), event(2)));
+        doAnswer(inv -> {
+            written.add(List.copyOf(inv.<List<BadgeAwardEvent>>getArgument(0)));
+            if (written.size() == 1) throw new RuntimeException("db down");
+            return List.of();
+        }).when(badgeBatchRepository).awardBatch(any());
+        pipeline = new BadgeAwardPipeline(badgeBatchRepository, leaderboard, 100, 10, Duration.ofMillis(20), Duration.ofMinutes(10));
+
+        pipeline.start();
+        verify(badgeBatchRepository, timeout(2000)).awardBatch(any());
+        pipeline.submit(event(3));
+
+        verify(badgeBatchRepository, timeout(2000).times(2)).awardBatch(any());
+        assertThat(written.get(0)).extracting(BadgeAwardEvent::outboxId).containsExactly(1L, 2L);
+        assertThat(written.get(1)).extracting(BadgeAwardEvent::outboxId).containsExactly(3L);
+    }
+
+    private void recordWrites() {
+        doAnswer(inv -> {
+            List<BadgeAwardEvent> batch = inv.getArgument(0);
+            written.add(List.copyOf(batch));
+            return batch.stream().map(event -> new AwardedBadgeDTO(event.userId(), "Backend")).toList();
+        }).when(badgeBatchRepository).awardBatch(any());
+    }
+
+    private static BadgeAwardEvent event(long id) {
+        return new BadgeAwardEvent(id, 1L, id, "Course " + id);
+    }
+}
@@ -0,0 +1,172 @@
+package org.manudev.auth_catalog_kata.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tiempo hasta la primera petición atendida según el modo de arranque.
+ *
+ * Lanza el jar como proceso aparte y mide desde el arranque de la JVM hasta la primera respuesta de
+ * POST /auth/login (un usuario inexistente: pasa por la cadena de seguridad, el controlador y una consulta).
+ * Anota también el "Started ... in X seconds" de Spring. Modos:
+ * - default:      ddl-auto: update + schema.sql
+ * - prod:         Flyway + validate + inicialización perezosa
+ * - prod-aot:     lo anterior con la configuración generada en el build (-Dspring.aot.enabled=true)
+ * - prod-aot-cds: lo anterior desde el jar extraído con el archivo CDS de clases
+ *
+ * 1. Empaquetar: mvn -Pprod verify -DskipTests  (con el Postgres de docker-compose.yml levantado)
+ * 2. Ejecutar:
+ *    mvn test -Dtest=StartupTimeBenchmarkTest -Dstartup.jar=target/auth_catalog_kata-0.0.1-SNAPSHOT.jar
+ *    (-Dstartup.modes=prod,prod-aot-cds para elegir modos, -Dstartup.runs=5 repeticiones por modo)
+ * Cada arranque añade una fila a target/startup-results.csv
+ */
+@EnabledIfSystemProperty(named = "startup.jar", matches = ".+")
+@DisplayName("Arranque - Benchmark de tiempo hasta la primera petición")
+class StartupTimeBenchmarkTest {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final Path jar = Path.of(System.getProperty("startup.jar"));
+    private final Path cdsDirectory = Path.of(System.getProperty("startup.cds-dir", "target/app"));
+    private final List<String> modes = List.of(System.getProperty("startup.modes", "default,prod,prod-aot,prod-aot-cds").split(","));
+    private final int runs = Integer.getInteger("startup.runs", 5);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    @DisplayName("Tiempo hasta la primera petición por modo de arranque")
+    void measureStartup() throws Exception {
+        Map<String, double[]> firstRequestMillis = new LinkedHashMap<>();
+        for (String mode : modes) {
+            double[] samples = new double[runs];
+            for (int run = 0; run < runs; run++) {
+                double[] result = start(mode.trim());
+                samples[run] = result[1];
+                append(String.format("%s,%d,%.2f,%.1f", mode.trim(), run + 1, result[0], result[1]));
+            }
+            Arrays.sort(samples);
+            firstRequestMillis.put(mode.trim(), samples);
+        }
+
+        System.out.println("mode,runs,p50_first_request_ms,min_first_request_ms");
+        firstRequestMillis.forEach((mode, samples) ->
+                System.out.printf("%s,%d,%.1f,%.1f%n", mode, runs, samples[(samples.length - 1) / 2], samples[0]));
+    }
+
+    // {segundos según Spring, milisegundos hasta la primera respuesta}
+    private double[] start(String mode) throws Exception {
+        int port = freePort();
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command(mode, port)).redirectErrorStream(true).start();
+        AtomicReference<Double> startedSeconds = new AtomicReference<>(Double.NaN);
+        Thread output = drain(process, startedSeconds);
+        try {
+            HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"startup@bench.dev\",\"password\":\"x\"}"))
+                    .build();
+            long deadline = launched + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(process.isAlive()).as("application process for mode %s is running", mode).isTrue();
+                try {
+                    HttpResponse<Void> response = client.send(login, HttpResponse.BodyHandlers.discarding());
+                    double millis = (System.nanoTime() - launched) / 1_000_000.0;
+                    assertThat(response.statusCode()).as("first response for mode %s", mode).isLessThan(500);
+                    return new double[]{startedSeconds.get(), millis};
+                } catch (IOException e) {
+                    // Aún no escucha
+                    Thread.sleep(10);
+                }
+            }
+            throw new AssertionError("Mode " + mode + " did not answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            output.join(5000);
+        }
+    }
+
+    private List<String> command(String mode, int port) {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        Path application = jar;
+        switch (mode) {
+            case "default" -> { }
+            case "prod" -> command.add("-Dspring.profiles.active=prod");
+            case "prod-aot" -> command.addAll(List.of("-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true"));
+            case "prod-aot-cds" -> {
+                command.addAll(List.of("-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true",
+                        "-XX:SharedArchiveFile=" + cdsDirectory.resolve("application.jsa")));
+                application = cdsDirectory.resolve(jar.getFileName());
+            }
+            default -> throw new IllegalArgumentException("Unknown startup mode: " + mode);
+        }
+        command.addAll(List.of("-jar", application.toString(), "--server.port=" + port, "--app.rate-limit.enabled=false"));
+        return command;
+    }
+
+    private static Thread drain(Process process, AtomicReference<Double> startedSeconds) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (matcher.find()) {
+                        startedSeconds.set(Double.parseDouble(matcher.group(1)));
+                    }
+                }
+            } catch (IOException e) {
+                // El proceso terminó
+            }
+        }, "startup-output");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void append(String row) throws IOException {
+        Path results = Path.of("target", "startup-results.csv");
+        Files.createDirectories(results.getParent());
+        if (Files.notExists(results)) {
+            Files.writeString(results, "mode,run,started_seconds,first_request_ms\n");
+        }
+        Files.writeString(results, row + "\n", StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,123 @@
+package org.manudev.auth_catalog_kata.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga contra una instancia en ejecución, para comparar el modo de hilos de plataforma
+ * con el perfil "virtual". Mezcla lecturas del catálogo con un porcentaje de logins (BCrypt).
+ *
+ * 1. Levantar la app en un modo:  mvn spring-boot:run  (o con -Dspring-boot.run.profiles=virtual)
+ *    con -Dspring-boot.run.arguments=--app.rate-limit.enabled=false: todo el tráfico sale de una sola IP
+ * 2. Ejecutar:
+ *    mvn test -Dtest=ThreadModeLoadTest -Dload.base-url=http://localhost:8080 \
+ *        -Dload.email=user@kata.dev -Dload.password=secret -Dload.label=platform
+ * 3. Repetir con el otro modo y -Dload.label=virtual; cada ejecución añade una fila a target/load-results.csv
+ */
+@EnabledIfSystemProperty(named = "load.base-url", matches = ".+")
+@DisplayName("Modo de hilos - Prueba de carga")
+class ThreadModeLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final String baseUrl = System.getProperty("load.base-url");
+    private final String email = System.getProperty("load.email", "user@kata.dev");
+    private final String password = System.getProperty("load.password", "secret");
+    private final String label = System.getProperty("load.label", "platform");
+    private final String path = System.getProperty("load.path", "/courses?page=0&size=20");
+    private final int concurrency = Integer.getInteger("load.concurrency", 500);
+    private final int requests = Integer.getInteger("load.requests", 20_000);
+    private final double loginRatio = Double.parseDouble(System.getProperty("load.login-ratio", "0.05"));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    @DisplayName("Latencia p99 y throughput bajo ráfagas")
+    void runLoad() throws Exception {
+        String token = login().join().body();
+        Matcher matcher = TOKEN.matcher(token);
+        assertThat(matcher.find()).as("login response contains a token").isTrue();
+        String bearer = "Bearer " + matcher.group(1);
+
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            CompletableFuture<HttpResponse<String>> call = ThreadLocalRandom.current().nextDouble() < loginRatio
+                    ? login()
+                    : client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Authorization", bearer)
+                            .GET()
+                            .build(), HttpResponse.BodyHandlers.ofString());
+            futures[i] = call.whenComplete((response, failure) -> {
+                latencies[index] = System.nanoTime() - sent;
+                if (failure != null || response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        double throughput = requests / elapsedSeconds;
+        String row = String.format("%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%d",
+                label, concurrency, requests, throughput,
+                millis(latencies, 50), millis(latencies, 99), millis(latencies, 99.9), errors.get());
+
+        System.out.println("mode,concurrency,requests,throughput_rps,p50_ms,p99_ms,p999_ms,errors");
+        System.out.println(row);
+        append(row);
+    }
+
+    private CompletableFuture<HttpResponse<String>> login() {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        return client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static void append(String row) throws IOException {
+        Path results = Path.of("target", "load-results.csv");
+        Files.createDirectories(results.getParent());
+        if (Files.notExists(results)) {
+            Files.writeString(results, "mode,concurrency,requests,throughput_rps,p50_ms,p99_ms,p999_ms,errors\n");
+        }
+        Files.writeString(results, row + "\n", StandardOpenOption.APPEND);
+    }
+}
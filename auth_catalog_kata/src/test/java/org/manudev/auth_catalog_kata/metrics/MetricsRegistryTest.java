@@ -0,0 +1,122 @@
+package org.manudev.auth_catalog_kata.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Pruebas unitarias para el registro de métricas y su exportación en formato Prometheus.
+ */
+@DisplayName("MetricsRegistry - Pruebas Unitarias")
+class MetricsRegistryTest {
+
+    /**
+     * Test: Un histograma se exporta con buckets acumulados, suma y conteo.
+     *
+     * Evalúa:
+     * - Cada bucket cuenta las muestras menores o iguales a su límite
+     * - +Inf y _count coinciden con el total de muestras
+     * - Pedir la misma serie dos veces devuelve el mismo histograma
+     */
+    @Test
+    @DisplayName("timer - Debe exportar buckets acumulados")
+    void testTimer_Scrape_ShouldExportCumulativeBuckets() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        LatencyHistogram timer = metrics.timer("http_server_requests_seconds", "HTTP latency", "uri", "/courses");
+
+        timer.record(2, TimeUnit.MILLISECONDS);
+        timer.record(40, TimeUnit.MILLISECONDS);
+        metrics.timer("http_server_requests_seconds", "HTTP latency", "uri", "/courses").record(3, TimeUnit.SECONDS);
+
+        String scrape = metrics.scrape();
+        assertThat(scrape)
+                .contains("# TYPE http_server_requests_seconds histogram")
+                .contains("http_server_requests_seconds_bucket{uri=\"/courses\",le=\"0.001\"} 0")
+                .contains("http_server_requests_seconds_bucket{uri=\"/courses\",le=\"0.0025\"} 1")
+                .contains("http_server_requests_seconds_bucket{uri=\"/courses\",le=\"0.05\"} 2")
+                .contains("http_server_requests_seconds_bucket{uri=\"/courses\",le=\"5.0\"} 3")
+                .contains("http_server_requests_seconds_bucket{uri=\"/courses\",le=\"+Inf\"} 3")
+                .contains("http_server_requests_seconds_sum{uri=\"/courses\"} 3.042")
+                .contains("http_server_requests_seconds_count{uri=\"/courses\"} 3");
+    }
+
+    /**
+     * Test: Contadores y gauges se exportan con sus etiquetas escapadas.
+     *
+     * Evalúa:
+     * - Los contadores llevan el sufijo _total
+     * - Las comillas de un valor de etiqueta se escapan
+     * - El gauge se lee en el momento de exportar
+     */
+    @Test
+    @DisplayName("counter/gauge - Debe exportar valores y escapar etiquetas")
+    void testCounterAndGauge_Scrape_ShouldExportValues() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.counter("jwt_failures", "Invalid tokens", "reason", "bad \"sig\"").add(2);
+        int[] pending = {0};
+        metrics.gauge("hikari_connections_pending", "Waiting threads", () -> pending[0], "pool", "primary");
+        pending[0] = 4;
+
+        assertThat(metrics.scrape())
+                .contains("# TYPE jwt_failures counter")
+                .contains("jwt_failures_total{reason=\"bad \\\"sig\\\"\"} 2")
+                .contains("hikari_connections_pending{pool=\"primary\"} 4");
+    }
+
+    /**
+     * Test: Las filas de un repositorio se cuentan según el tipo de resultado.
+     *
+     * Evalúa:
+     * - Listas, páginas y Optional cuentan sus elementos
+     * - Números y void no cuentan filas
+     */
+    @Test
+    @DisplayName("rows - Debe contar filas según el tipo de resultado")
+    void testRows_ResultTypes_ShouldCountRows() {
+        assertThat(RepositoryMetricsInterceptor.rows(List.of(1, 2, 3))).isEqualTo(3);
+        assertThat(RepositoryMetricsInterceptor.rows(new PageImpl<>(List.of("a", "b")))).isEqualTo(2);
+        assertThat(RepositoryMetricsInterceptor.rows(Optional.empty())).isZero();
+        assertThat(RepositoryMetricsInterceptor.rows(new Object())).isEqualTo(1);
+        assertThat(RepositoryMetricsInterceptor.rows(42L)).isEqualTo(-1);
+        assertThat(RepositoryMetricsInterceptor.rows(null)).isEqualTo(-1);
+    }
+
+    /**
+     * Test: El filtro HTTP reutiliza la serie de cada ruta.
+     *
+     * Evalúa:
+     * - Que dos peticiones a /courses/{id} con el mismo estado resuelvan la serie una sola vez
+     * - Que ambas queden en la misma serie, etiquetada con el patrón y no con el id
+     */
+    @Test
+    @DisplayName("HttpMetricsFilter - Debe resolver la serie una vez por ruta y estado")
+    void testHttpFilter_SameRoute_ShouldResolveSeriesOnce() throws Exception {
+        MetricsRegistry metrics = spy(new MetricsRegistry());
+        HttpMetricsFilter filter = new HttpMetricsFilter(metrics);
+
+        for (String id : List.of("1", "2")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/courses/" + id);
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/courses/{id}");
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        verify(metrics, times(1)).timer(anyString(), anyString(), any(String[].class));
+        assertThat(metrics.scrape())
+                .contains("http_server_requests_seconds_count{method=\"GET\",uri=\"/courses/{id}\",status=\"200\"} 2");
+    }
+}
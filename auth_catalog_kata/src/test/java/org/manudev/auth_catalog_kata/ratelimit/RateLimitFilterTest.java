@@ -0,0 +1,283 @@
+package org.manudev.auth_catalog_kata.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas del límite de tasa y del descarte de carga con un reloj controlado.
+ */
+@DisplayName("RateLimitFilter - Pruebas Unitarias")
+class RateLimitFilterTest {
+
+    @BeforeEach
+    void setUp() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        rateLimiter = new RateLimiter(metrics,
+                new RateLimiter.Limit("ip", 10, 5),
+                new RateLimiter.Limit("auth-ip", 1, 2),
+                new RateLimiter.Limit("user", 10, 3),
+                new RateLimiter.Limit("endpoint", 1000, 1000),
+                1000, Duration.ofMinutes(10), clock::get);
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(metrics, 4, 2, 8, Duration.ofMillis(100), 0.5);
+        filter = new RateLimitFilter(rateLimiter, concurrencyLimiter, true, List.of("/auth/", "/courses"));
+        userFilter = new UserRateLimitFilter(rateLimiter, true, List.of("/auth/", "/courses"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private final AtomicLong clock = new AtomicLong();
+    private RateLimiter rateLimiter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private RateLimitFilter filter;
+    private UserRateLimitFilter userFilter;
+
+    /**
+     * Test: Agotada la ráfaga de login de una IP se responde 429 hasta que se repone un token.
+     *
+     * Evalúa:
+     * - Las primeras "burst" peticiones pasan
+     * - La siguiente recibe 429 con Retry-After
+     * - Otra IP no se ve afectada
+     * - Pasado el intervalo de reposición vuelve a admitirse
+     */
+    @Test
+    @DisplayName("doFilter - Debe limitar los logins por IP")
+    void testDoFilter_LoginBurst_ShouldReturn429() throws Exception {
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse limited = call("POST", "/auth/login", "10.0.0.1");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("1");
+
+        assertThat(call("POST", "/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(call("POST", "/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Test: Un usuario autenticado tiene su propio cubo, aunque cambie de IP.
+     *
+     * Evalúa:
+     * - El límite por usuario se aplica con IPs distintas
+     * - Los ids de la ruta no crean endpoints nuevos
+     * - Las rutas no configuradas no se limitan
+     */
+    @Test
+    @DisplayName("doFilter - Debe limitar por usuario del JWT")
+    void testDoFilter_SameSubject_ShouldShareBucket() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("42", null, List.of()));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(call("GET", "/courses/" + i, "10.0.1." + i).getStatus()).isEqualTo(200);
+        }
+        assertThat(call("GET", "/courses/99", "10.0.1.99").getStatus()).isEqualTo(429);
+        assertThat(call("GET", "/me/dashboard", "10.0.1.99").getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Test: Con respuestas por encima del umbral el límite de concurrencia baja y se descarta carga con 503.
+     *
+     * Evalúa:
+     * - Una respuesta lenta reduce el límite a la mitad (backoff 0.5)
+     * - Con el límite ocupado la siguiente petición recibe 503
+     * - Las respuestas rápidas recuperan el límite
+     */
+    @Test
+    @DisplayName("doFilter - Debe descartar carga cuando la latencia supera el umbral")
+    void testDoFilter_SlowResponses_ShouldShedLoad() throws Exception {
+        assertThat(concurrencyLimiter.tryAcquire()).isTrue();
+        concurrencyLimiter.release(0, TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(concurrencyLimiter.getLimit()).isEqualTo(2);
+
+        assertThat(concurrencyLimiter.tryAcquire()).isTrue();
+        assertThat(concurrencyLimiter.tryAcquire()).isTrue();
+        MockHttpServletResponse shed = call("GET", "/courses", "10.0.2.1");
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+
+        concurrencyLimiter.release(TimeUnit.SECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(5));
+        concurrencyLimiter.release(TimeUnit.SECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(concurrencyLimiter.getLimit()).isEqualTo(3);
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+    }
+
+    /**
+     * Test: Un pico de latencia con muchas peticiones en curso.
+     *
+     * Evalúa:
+     * - Que 200 respuestas lentas concurrentes, todas iniciadas antes de la reducción, bajen el límite una sola vez
+     * - Que una respuesta lenta iniciada después de la reducción vuelva a reducirlo
+     * - Que una iniciada antes de la última reducción no lo haga
+     */
+    @Test
+    @DisplayName("release - Debe reducir el límite como mucho una vez por ventana")
+    void testRelease_ConcurrentSlowBurst_ShouldBackOffOnce() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new MetricsRegistry(), 200, 10, 1000, Duration.ofMillis(100), 0.9);
+        long slow = TimeUnit.SECONDS.toNanos(1);
+        for (int i = 0; i < 200; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    limiter.release(0, slow);
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(180);
+        assertThat(limiter.getInFlight()).isZero();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.SECONDS.toNanos(2), slow);
+        assertThat(limiter.getLimit()).isEqualTo(162);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(2500), slow);
+        assertThat(limiter.getLimit()).isEqualTo(162);
+    }
+
+    /**
+     * Test: Un rechazo por usuario no gasta el cupo de la IP.
+     *
+     * Evalúa:
+     * - Que con el cubo del usuario agotado la IP conserve sus tokens para otras peticiones
+     */
+    @Test
+    @DisplayName("tryAcquireRequest - Debe devolver el token de la IP si rechaza el límite por usuario")
+    void testTryAcquireRequest_UserRejected_ShouldRefundIpToken() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(acquire("10.0.3.1", "42")).isZero();
+        }
+        for (int i = 0; i < 5; i++) {
+            assertThat(acquire("10.0.3.1", "42")).isPositive();
+        }
+
+        // Ráfaga por IP de 5: quedan 2 tokens tras las 3 peticiones admitidas
+        assertThat(acquire("10.0.3.1", null)).isZero();
+        assertThat(acquire("10.0.3.1", null)).isZero();
+        assertThat(acquire("10.0.3.1", null)).isPositive();
+    }
+
+    /**
+     * Test: El límite por IP se aplica antes de validar el token.
+     *
+     * Evalúa:
+     * - Que con tokens inválidos (JwtFilter lanza) cada petición consuma cupo de la IP
+     * - Que agotada la ráfaga la petición reciba 429 sin llegar a JwtFilter
+     */
+    @Test
+    @DisplayName("doFilter - Debe limitar por IP antes de validar el token")
+    void testDoFilter_InvalidTokens_ShouldLimitBeforeJwtFilter() throws Exception {
+        AtomicInteger validations = new AtomicInteger();
+        FilterChain invalidToken = (request, response) -> {
+            validations.incrementAndGet();
+            throw new ServletException("Invalid token");
+        };
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> call("GET", "/courses", "10.0.4.1", invalidToken))
+                    .isInstanceOf(ServletException.class);
+        }
+        assertThat(call("GET", "/courses", "10.0.4.1", invalidToken).getStatus()).isEqualTo(429);
+        assertThat(validations.get()).isEqualTo(5);
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+    }
+
+    // Las dos etapas, como en la cadena de seguridad: IP antes del token, usuario y endpoint después
+    private long acquire(String ip, String subject) {
+        long wait = rateLimiter.tryAcquireClient(ip, false);
+        return wait > 0 ? wait : rateLimiter.tryAcquireRequest(ip, false, subject, "GET /courses");
+    }
+
+    /**
+     * Test: Sobrecarga sintética: muchos hilos compiten por el mismo cubo sin locks.
+     *
+     * Evalúa:
+     * - Se admiten exactamente "burst" peticiones, ni una más
+     * - El resto recibe un tiempo de espera positivo
+     */
+    @Test
+    @DisplayName("tryConsume - Debe admitir exactamente la ráfaga bajo concurrencia")
+    void testTryConsume_Overload_ShouldAdmitExactlyBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 500);
+        int threads = 16;
+        int attemptsPerThread = 2_000;
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (bucket.tryConsume(0) == 0) admitted.incrementAndGet();
+                        else rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(admitted.get()).isEqualTo(500);
+        assertThat(rejected.get()).isEqualTo(threads * attemptsPerThread - 500);
+    }
+
+    private MockHttpServletResponse call(String method, String uri, String ip) throws Exception {
+        return call(method, uri, ip, (request, response) -> userFilter.doFilter(request, response, new MockFilterChain()));
+    }
+
+    // "authentication" ocupa el lugar de JwtFilter entre los dos filtros
+    private MockHttpServletResponse call(String method, String uri, String ip, FilterChain authentication)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, authentication);
+        return response;
+    }
+}
@@ -0,0 +1,186 @@
+package org.manudev.auth_catalog_kata.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de contención: muchos escritores actualizando el mismo curso contra un Postgres real.
+ *
+ * Compara el modo optimista de updateCourseById (leer versión + UPDATE ... WHERE version = ?, reintentando
+ * si otro escritor ganó) con el bloqueo de fila (SELECT ... FOR UPDATE dentro de una transacción)
+ * y, como referencia, un UPDATE ciego sin lectura previa.
+ * Trabaja sobre la tabla auxiliar bench_course_versions, no toca la tabla courses.
+ *
+ * Ejecutar con Postgres levantado (docker-compose.yml):
+ * mvn test -Dtest=CourseUpdateContentionBenchmarkTest -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/kata_courses
+ */
+@EnabledIfSystemProperty(named = "bench.jdbc.url", matches = ".+")
+@DisplayName("Actualización concurrente de un curso - Benchmark")
+class CourseUpdateContentionBenchmarkTest {
+
+    private static final int[] WRITERS = {1, 4, 16, 64};
+    private static final long DURATION_MILLIS = Long.getLong("bench.duration-ms", 5_000);
+    // Muestras de latencia por escritor; de sobra para unos segundos contra una sola fila
+    private static final int MAX_SAMPLES = 100_000;
+
+    private final String url = System.getProperty("bench.jdbc.url");
+    private final String user = System.getProperty("bench.jdbc.user", "postgres");
+    private final String password = System.getProperty("bench.jdbc.password", "admin");
+
+    private enum Strategy { OPTIMISTIC, FOR_UPDATE, BLIND }
+
+    @Test
+    @DisplayName("Throughput y reintentos según el número de escritores sobre la misma fila")
+    void benchmarkContention() throws Exception {
+        try (Connection connection = connect()) {
+            execute(connection, "DROP TABLE IF EXISTS bench_course_versions");
+            execute(connection, "CREATE TABLE bench_course_versions (id bigint PRIMARY KEY, description text, " +
+                    "updated_at timestamp NOT NULL DEFAULT now(), version bigint NOT NULL DEFAULT 0)");
+            execute(connection, "INSERT INTO bench_course_versions (id, description) VALUES (1, 'initial')");
+        }
+
+        System.out.printf("%-12s %8s %14s %12s %12s%n", "strategy", "writers", "updates/s", "retries", "p99 (ms)");
+        for (Strategy strategy : Strategy.values()) {
+            for (int writers : WRITERS) {
+                Result result = run(strategy, writers);
+                System.out.printf("%-12s %8d %14.0f %12d %12.2f%n",
+                        strategy, writers, result.throughput(), result.retries(), result.p99Millis());
+                assertThat(result.updates()).isPositive();
+            }
+        }
+
+        try (Connection connection = connect()) {
+            execute(connection, "DROP TABLE bench_course_versions");
+        }
+    }
+
+    private Result run(Strategy strategy, int writers) throws Exception {
+        LongAdder updates = new LongAdder();
+        LongAdder retries = new LongAdder();
+        long[][] latencies = new long[writers][MAX_SAMPLES];
+        int[] counts = new int[writers];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long[] deadline = new long[1];
+
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            long[] samples = latencies[w];
+            Thread thread = new Thread(() -> {
+                try (Connection connection = connect()) {
+                    start.await();
+                    int n = 0;
+                    while (System.nanoTime() < deadline[0] && n < samples.length) {
+                        long begin = System.nanoTime();
+                        retries.add(update(connection, strategy, "writer " + writer + " #" + n));
+                        samples[n++] = System.nanoTime() - begin;
+                        updates.increment();
+                    }
+                    counts[writer] = n;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        deadline[0] = begin + DURATION_MILLIS * 1_000_000;
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        List<Long> all = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            for (int i = 0; i < counts[w]; i++) {
+                all.add(latencies[w][i]);
+            }
+        }
+        all.sort(null);
+        double p99 = all.isEmpty() ? 0 : all.get(Math.max(0, (int) Math.ceil(0.99 * all.size()) - 1)) / 1_000_000.0;
+        return new Result(updates.sum(), updates.sum() / seconds, retries.sum(), p99);
+    }
+
+    // Devuelve el número de reintentos que necesitó la actualización
+    private static int update(Connection connection, Strategy strategy, String description) throws SQLException {
+        switch (strategy) {
+            case OPTIMISTIC -> {
+                int retries = 0;
+                while (true) {
+                    long version;
+                    try (PreparedStatement read = connection.prepareStatement(
+                            "SELECT version FROM bench_course_versions WHERE id = 1");
+                         ResultSet rs = read.executeQuery()) {
+                        rs.next();
+                        version = rs.getLong(1);
+                    }
+                    try (PreparedStatement write = connection.prepareStatement(
+                            "UPDATE bench_course_versions SET description = ?, updated_at = now(), version = version + 1 " +
+                            "WHERE id = 1 AND version = ?")) {
+                        write.setString(1, description);
+                        write.setLong(2, version);
+                        if (write.executeUpdate() == 1) return retries;
+                    }
+                    retries++;
+                }
+            }
+            case FOR_UPDATE -> {
+                connection.setAutoCommit(false);
+                try {
+                    try (PreparedStatement lock = connection.prepareStatement(
+                            "SELECT version FROM bench_course_versions WHERE id = 1 FOR UPDATE");
+                         ResultSet rs = lock.executeQuery()) {
+                        rs.next();
+                    }
+                    try (PreparedStatement write = connection.prepareStatement(
+                            "UPDATE bench_course_versions SET description = ?, updated_at = now(), version = version + 1 WHERE id = 1")) {
+                        write.setString(1, description);
+                        write.executeUpdate();
+                    }
+                    connection.commit();
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+                return 0;
+            }
+            default -> {
+                try (PreparedStatement write = connection.prepareStatement(
+                        "UPDATE bench_course_versions SET description = ?, updated_at = now(), version = version + 1 WHERE id = 1")) {
+                    write.setString(1, description);
+                    write.executeUpdate();
+                }
+                return 0;
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private record Result(long updates, double throughput, long retries, double p99Millis) {
+    }
+}
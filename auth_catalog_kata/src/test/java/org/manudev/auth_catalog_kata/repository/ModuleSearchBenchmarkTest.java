@@ -0,0 +1,129 @@
+package org.manudev.auth_catalog_kata.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la búsqueda por módulo contra un Postgres real.
+ *
+ * Compara la consulta anterior (UPPER(module) LIKE UPPER(?), sin índice utilizable)
+ * con la actual (LOWER(module) LIKE ? sobre un índice trigram) con 1k, 10k, 100k y 1M cursos.
+ * Trabaja sobre la tabla auxiliar bench_courses, no toca la tabla courses.
+ *
+ * Ejecutar con Postgres levantado (docker-compose.yml):
+ * mvn test -Dtest=ModuleSearchBenchmarkTest -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/kata_courses
+ */
+@EnabledIfSystemProperty(named = "bench.jdbc.url", matches = ".+")
+@DisplayName("Búsqueda por módulo - Benchmark")
+class ModuleSearchBenchmarkTest {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 50;
+    private static final String FILTER = "devops";
+
+    private static final String OLD_PAGE =
+            "SELECT * FROM bench_courses WHERE upper(module) LIKE upper(?) LIMIT 20";
+    private static final String OLD_COUNT =
+            "SELECT count(*) FROM bench_courses WHERE upper(module) LIKE upper(?)";
+    private static final String NEW_PAGE =
+            "SELECT * FROM bench_courses WHERE lower(module) LIKE ? ESCAPE '\\' LIMIT 20";
+    private static final String NEW_COUNT =
+            "SELECT count(*) FROM bench_courses WHERE lower(module) LIKE ? ESCAPE '\\'";
+
+    @Test
+    @DisplayName("Latencia de la búsqueda por módulo según el tamaño del catálogo")
+    void benchmarkModuleSearch() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url");
+        String user = System.getProperty("bench.jdbc.user", "postgres");
+        String password = System.getProperty("bench.jdbc.password", "admin");
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            execute(connection, "CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            execute(connection, "DROP TABLE IF EXISTS bench_courses");
+            execute(connection, "CREATE TABLE bench_courses (id bigserial PRIMARY KEY, title text NOT NULL, module text)");
+
+            System.out.printf("%-10s %14s %14s %14s %14s%n", "courses", "old p50 (ms)", "old p95 (ms)", "new p50 (ms)", "new p95 (ms)");
+            for (int size : SIZES) {
+                seed(connection, size);
+
+                execute(connection, "DROP INDEX IF EXISTS idx_bench_courses_module_trgm");
+                execute(connection, "ANALYZE bench_courses");
+                double[] old = measure(connection, OLD_PAGE, OLD_COUNT, "%" + FILTER + "%");
+
+                execute(connection, "CREATE INDEX idx_bench_courses_module_trgm ON bench_courses USING gin (lower(module) gin_trgm_ops)");
+                execute(connection, "ANALYZE bench_courses");
+                double[] current = measure(connection, NEW_PAGE, NEW_COUNT, ICourseRepository.containsPattern(FILTER));
+
+                System.out.printf("%-10d %14.3f %14.3f %14.3f %14.3f%n",
+                        size, percentile(old, 50), percentile(old, 95), percentile(current, 50), percentile(current, 95));
+
+                assertThat(count(connection, NEW_COUNT, ICourseRepository.containsPattern(FILTER)))
+                        .isEqualTo(count(connection, OLD_COUNT, "%" + FILTER + "%"));
+            }
+            execute(connection, "DROP TABLE bench_courses");
+        }
+    }
+
+    // Un 2% de los cursos pertenece a un módulo que contiene "DevOps"
+    private static void seed(Connection connection, int size) throws SQLException {
+        execute(connection, "TRUNCATE bench_courses");
+        execute(connection, "INSERT INTO bench_courses (title, module) " +
+                "SELECT 'Course ' || g, CASE WHEN g % 50 = 0 THEN 'Cloud DevOps ' || (g % 7) " +
+                "ELSE 'Module ' || md5((g % 997)::text) END " +
+                "FROM generate_series(1, " + size + ") g");
+    }
+
+    private static double[] measure(Connection connection, String pageSql, String countSql, String pattern) throws SQLException {
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            long start = System.nanoTime();
+            try (PreparedStatement page = connection.prepareStatement(pageSql)) {
+                page.setString(1, pattern);
+                try (ResultSet rs = page.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                }
+            }
+            count(connection, countSql, pattern);
+            if (i >= WARMUP) {
+                samples[i - WARMUP] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long count(Connection connection, String sql, String pattern) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, pattern);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static double percentile(double[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
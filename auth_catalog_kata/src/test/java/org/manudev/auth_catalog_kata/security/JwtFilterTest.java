@@ -0,0 +1,134 @@
+package org.manudev.auth_catalog_kata.security;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.cache.AuthorityRegistry;
+import org.manudev.auth_catalog_kata.entities.Role;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.manudev.auth_catalog_kata.repository.IRoleRepository;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para JwtFilter y la cache de tokens verificados.
+ */
+@DisplayName("JwtFilter - Pruebas Unitarias")
+class JwtFilterTest {
+
+    private static final String SECRET = "kYQWfODnuPH5AU35PAkLKp7565bhokLQCKe045NPexwHUJLHhOTbVWobIOvD3bb8";
+
+    private JwtUtil jwtUtil;
+    private JwtTokenCache tokenCache;
+    private IRoleRepository roleRepository;
+    private JwtFilter jwtFilter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SECRET, 3600000));
+        tokenCache = new JwtTokenCache(100);
+        roleRepository = mock(IRoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(
+                Role.builder().id(1L).name("user").build(),
+                Role.builder().id(2L).name("admin").build()));
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(roleRepository);
+        authorityRegistry.preload();
+        jwtFilter = new JwtFilter(jwtUtil, tokenCache, authorityRegistry, new MetricsRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test: Un mismo token solo se verifica una vez.
+     *
+     * Evalúa:
+     * - Que la segunda petición se resuelva desde la cache
+     * - Que las authorities se construyan con el prefijo ROLE_
+     * - Que cada petición reciba su propio Authentication, no el de la anterior
+     */
+    @Test
+    @DisplayName("doFilter - Debe verificar el token una sola vez y reutilizarlo desde la cache")
+    void testDoFilter_SameTokenTwice_ShouldParseOnce() throws Exception {
+        String token = jwtUtil.generateToken("1", Map.of("roles", new Object[]{"admin"}));
+
+        Authentication first = filter(token);
+        Authentication second = filter(token);
+
+        assertThat(first.getPrincipal()).isEqualTo("1");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN");
+
+        verify(jwtUtil, times(1)).parseToken(token);
+        assertThat(tokenCache.stats().hitCount()).isEqualTo(1);
+        assertThat(tokenCache.stats().missCount()).isEqualTo(1);
+    }
+
+    /**
+     * Test: Un token con firma inválida no se guarda en la cache.
+     */
+    @Test
+    @DisplayName("doFilter - Debe rechazar y no cachear tokens con firma inválida")
+    void testDoFilter_TamperedToken_ShouldFailAndNotCache() {
+        String token = jwtUtil.generateToken("1", Map.of("roles", new Object[]{"user"}));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> filter(tampered)).isInstanceOf(ServletException.class);
+        assertThatThrownBy(() -> filter(tampered)).isInstanceOf(ServletException.class);
+
+        assertThat(tokenCache.size()).isZero();
+        verify(jwtUtil, times(2)).parseToken(tampered);
+    }
+
+    /**
+     * Test: Tokens distintos con los mismos roles comparten authorities.
+     *
+     * Evalúa:
+     * - Cada rol usa una única instancia de authority en todas las combinaciones
+     * - Un rol que no está en la tabla la recarga una sola vez
+     */
+    @Test
+    @DisplayName("doFilter - Debe compartir authorities internadas entre tokens")
+    void testDoFilter_SameRoles_ShouldShareInternedAuthorities() throws Exception {
+        Authentication first = filter(jwtUtil.generateToken("1", Map.of("roles", new Object[]{"user", "admin"})));
+        Authentication second = filter(jwtUtil.generateToken("2", Map.of("roles", new Object[]{"user", "admin"})));
+        Authentication adminOnly = filter(jwtUtil.generateToken("3", Map.of("roles", new Object[]{"admin"})));
+
+        List<GrantedAuthority> firstAuthorities = List.copyOf(first.getAuthorities());
+        List<GrantedAuthority> secondAuthorities = List.copyOf(second.getAuthorities());
+        assertThat(firstAuthorities).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(secondAuthorities.get(0)).isSameAs(firstAuthorities.get(0));
+        assertThat(secondAuthorities.get(1)).isSameAs(firstAuthorities.get(1));
+        assertThat(List.copyOf(adminOnly.getAuthorities()).get(0)).isSameAs(firstAuthorities.get(1));
+        verify(roleRepository, times(1)).findAll();
+
+        filter(jwtUtil.generateToken("4", Map.of("roles", new Object[]{"auditor"})));
+        filter(jwtUtil.generateToken("5", Map.of("roles", new Object[]{"auditor"})));
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/courses");
+        request.addHeader("Authorization", "Bearer " + token);
+        SecurityContextHolder.clearContext();
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,117 @@
+package org.manudev.auth_catalog_kata.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para el pool acotado de BCrypt.
+ */
+@DisplayName("PasswordHasher - Pruebas Unitarias")
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    /**
+     * Test: encode y matches funcionan a través del pool.
+     */
+    @Test
+    @DisplayName("encode/matches - Debe generar y verificar hashes con el coste configurado")
+    void testEncodeAndMatches_ShouldRoundTrip() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), 4, 1, 4, Duration.ofSeconds(5), new MetricsRegistry());
+
+        String hash = passwordHasher.encode("secret");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(passwordHasher.matches("secret", hash)).isTrue();
+        assertThat(passwordHasher.matches("other", hash)).isFalse();
+    }
+
+    /**
+     * Test: Con el hilo ocupado y la cola llena se rechaza con 429 sin esperar.
+     */
+    @Test
+    @DisplayName("matches - Debe responder 429 cuando la cola está llena")
+    void testMatches_WhenQueueFull_ShouldRejectWith429() throws Exception {
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(encoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        passwordHasher = new PasswordHasher(encoder, 4, 1, 1, Duration.ofSeconds(5), new MetricsRegistry());
+
+        // Uno ocupa el único hilo, el otro la única posición de la cola
+        passwordHasher.encodeAsync("a");
+        passwordHasher.encodeAsync("b");
+
+        assertThatThrownBy(() -> passwordHasher.matches("c", "hash"))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        release.countDown();
+    }
+
+    /**
+     * Test: Al vencer el plazo la operación en cola se retira y la que está en marcha termina.
+     * Evalúa:
+     * - Se responde 503 a la petición que esperaba
+     * - La tarea encolada se quita de la cola y nunca llega a ejecutarse
+     * - La tarea en marcha no se interrumpe
+     */
+    @Test
+    @DisplayName("matches - Debe retirar de la cola sin interrumpir la operación en marcha al vencer el plazo")
+    void testMatches_Timeout_ShouldRemoveQueuedTaskOnly() throws Exception {
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(encoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        passwordHasher = new PasswordHasher(encoder, 4, 1, 4, Duration.ofMillis(50), new MetricsRegistry());
+
+        // Ocupa el único hilo; el timeout de encode deja su tarea en marcha
+        CompletableFuture<String> running = passwordHasher.encodeAsync("a");
+        assertThatThrownBy(() -> passwordHasher.matches("b", "hash"))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(passwordHasher.getQueueDepth()).isZero();
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        verify(encoder, never()).matches(any(), any());
+    }
+
+    /**
+     * Test: Solo se pide rehash cuando el coste del hash difiere del configurado.
+     */
+    @Test
+    @DisplayName("needsRehash - Debe detectar hashes con un coste distinto")
+    void testNeedsRehash_ShouldCompareCost() {
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), 12, 1, 4, Duration.ofSeconds(5), new MetricsRegistry());
+
+        assertThat(passwordHasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(passwordHasher.needsRehash("$2a$12$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234")).isFalse();
+        assertThat(passwordHasher.needsRehash("plain")).isFalse();
+    }
+}
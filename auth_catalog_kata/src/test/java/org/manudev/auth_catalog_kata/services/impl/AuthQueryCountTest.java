@@ -0,0 +1,124 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.manudev.auth_catalog_kata.cache.RoleCache;
+import org.manudev.auth_catalog_kata.dto.UserRegisterDTO;
+import org.manudev.auth_catalog_kata.entities.Role;
+import org.manudev.auth_catalog_kata.entities.User;
+import org.manudev.auth_catalog_kata.metrics.MetricsRegistry;
+import org.manudev.auth_catalog_kata.repository.IRoleRepository;
+import org.manudev.auth_catalog_kata.repository.IUsersRepository;
+import org.manudev.auth_catalog_kata.security.JwtUtil;
+import org.manudev.auth_catalog_kata.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de número de consultas SQL en login y registro, contra H2 con las estadísticas de Hibernate.
+ *
+ * Evalúa que el login cargue usuario y roles en una sola consulta
+ * y que el registro no consulte la tabla roles por cada rol.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.jwt.secret=kYQWfODnuPH5AU35PAkLKp7565bhokLQCKe045NPexwHUJLHhOTbVWobIOvD3bb8",
+        "app.jwt.expiration=3600000",
+        "app.security.bcrypt.cost=4",
+        "app.security.bcrypt.threads=1"
+})
+@Import({AuthServiceImpl.class, UserServiceImpl.class, RoleCache.class, JwtUtil.class, PasswordHasher.class,
+        MetricsRegistry.class, AuthQueryCountTest.PasswordEncoderConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Login y registro - Número de consultas")
+class AuthQueryCountTest {
+
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+        @Bean
+        BCryptPasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private AuthServiceImpl authService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private RoleCache roleCache;
+    @Autowired
+    private IUsersRepository usersRepository;
+    @Autowired
+    private IRoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        usersRepository.deleteAll();
+        roleRepository.deleteAll();
+        roleRepository.save(Role.builder().name("user").build());
+        roleRepository.save(Role.builder().name("admin").build());
+        roleCache.invalidate();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Test: Registro con dos roles.
+     *
+     * Evalúa:
+     * - Una consulta para comprobar el email, una para cargar la tabla de roles (cache fría)
+     *   y los inserts del usuario y de user_roles
+     * - Que un segundo registro ya no consulte la tabla roles
+     */
+    @Test
+    @DisplayName("createUser - No debe consultar la tabla roles por cada rol")
+    void testCreateUser_ShouldResolveRolesInOneBatch() {
+        statistics.clear();
+        userService.createUser(new UserRegisterDTO("a@kata.dev", "secret", "A", Set.of("user", "admin")));
+
+        // exists + findAll(roles) + insert users + 2 inserts user_roles
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+
+        statistics.clear();
+        User second = userService.createUser(new UserRegisterDTO("b@kata.dev", "secret", "B", Set.of("user", "admin")));
+
+        // exists + insert users + 2 inserts user_roles
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(second.getRoles()).extracting(Role::getName).containsExactlyInAnyOrder("user", "admin");
+    }
+
+    /**
+     * Test: Login de un usuario con dos roles en una sola consulta.
+     */
+    @Test
+    @DisplayName("login - Debe cargar usuario y roles en una sola consulta")
+    void testLogin_ShouldLoadUserWithRolesInOneQuery() {
+        userService.createUser(new UserRegisterDTO("c@kata.dev", "secret", "C", Set.of("user", "admin")));
+
+        statistics.clear();
+        String token = authService.login("c@kata.dev", "secret");
+
+        assertThat(token).isNotBlank();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -4,25 +4,49 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.cache.CourseCatalogCache;
+import org.manudev.auth_catalog_kata.cache.CourseCatalogIndex;
+import org.manudev.auth_catalog_kata.cache.ModuleRegistry;
+import org.manudev.auth_catalog_kata.dto.CourseCursor;
+import org.manudev.auth_catalog_kata.dto.CourseExportFormat;
+import org.manudev.auth_catalog_kata.dto.CourseImportProgressDTO;
+import org.manudev.auth_catalog_kata.dto.CourseImportResultDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestDTO;
+import org.manudev.auth_catalog_kata.dto.CourseRequestKeysetDTO;
 import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
 import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.CourseSliceDTO;
+import org.manudev.auth_catalog_kata.dto.CourseVersionDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCatalogDTO;
+import org.manudev.auth_catalog_kata.dto.ModuleCountDTO;
 import org.manudev.auth_catalog_kata.entities.Course;
+import org.manudev.auth_catalog_kata.repository.CourseBatchRepository;
 import org.manudev.auth_catalog_kata.repository.ICourseRepository;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -42,7 +66,9 @@ class CoursesServiceImplTest {
     @Mock
     private ICourseRepository courseRepository;
 
-    @InjectMocks
+    @Mock
+    private CourseBatchRepository courseBatchRepository;
+
     private CoursesServiceImpl coursesService;
 
     private Course testCourse;
@@ -54,6 +80,18 @@ class CoursesServiceImplTest {
      */
     @BeforeEach
     void setUp() {
+        coursesService = new CoursesServiceImpl(
+                courseRepository,
+                new CourseCatalogCache(100, 100, Duration.ofMinutes(10)),
+                new CourseCatalogIndex(courseBatchRepository, false, Duration.ofMinutes(10)),
+                new ModuleRegistry(courseRepository, Duration.ofMinutes(5)),
+                courseBatchRepository,
+                JsonMapper.builder().build(),
+                1000,
+                TransactionOperations.withoutTransaction(),
+                3
+        );
+
         // Creamos un curso de prueba con datos completos
         testCourse = Course.builder()
                 .id(1L)
@@ -82,7 +120,7 @@ class CoursesServiceImplTest {
      * Test: Verificar que se devuelven módulos ordenados cuando existen en la BD.
      * 
      * Evalúa:
-     * - Que se llame al repositorio correctamente
+     * - Que se llame al repositorio una sola vez (las siguientes lecturas salen de memoria)
      * - Que los módulos se ordenen alfabéticamente
      * - Que se devuelva una lista inmutable
      */
@@ -90,18 +128,23 @@ class CoursesServiceImplTest {
     @DisplayName("getAvailableModules - Debe devolver módulos ordenados alfabéticamente")
     void testGetAvailableModules_WhenModulesExist_ShouldReturnSortedList() {
         // ARRANGE: Preparamos módulos desordenados
-        List<String> unsortedModules = Arrays.asList("Frontend", "Backend", "DevOps");
-        when(courseRepository.findDistinctModulesNative()).thenReturn(unsortedModules);
+        List<ModuleCountDTO> unsortedModules = Arrays.asList(
+                new ModuleCountDTO("Frontend", 2L),
+                new ModuleCountDTO("Backend", 5L),
+                new ModuleCountDTO("DevOps", 1L));
+        when(courseRepository.countCoursesByModule()).thenReturn(unsortedModules);
 
 
         List<String> result = coursesService.getAvailableModules();
+        coursesService.getAvailableModules();
 
         assertThat(result)
                 .isNotNull()
                 .hasSize(3)
                 .containsExactly("Backend", "DevOps", "Frontend"); // Orden alfabético
+        assertThatThrownBy(() -> result.add("Other")).isInstanceOf(UnsupportedOperationException.class);
         
-        verify(courseRepository, times(1)).findDistinctModulesNative();
+        verify(courseRepository, times(1)).countCoursesByModule();
     }
 
     /**
@@ -115,7 +158,7 @@ class CoursesServiceImplTest {
     @DisplayName("getAvailableModules - Debe devolver lista vacía cuando no hay módulos")
     void testGetAvailableModules_WhenNoModules_ShouldReturnEmptyList() {
         // ARRANGE
-        when(courseRepository.findDistinctModulesNative()).thenReturn(Collections.emptyList());
+        when(courseRepository.countCoursesByModule()).thenReturn(Collections.emptyList());
 
         
         List<String> result = coursesService.getAvailableModules();
@@ -125,7 +168,44 @@ class CoursesServiceImplTest {
                 .isNotNull()
                 .isEmpty();
         
-        verify(courseRepository, times(1)).findDistinctModulesNative();
+        verify(courseRepository, times(1)).countCoursesByModule();
+    }
+
+    /**
+     * Test: La lista de módulos se mantiene con las escrituras sin volver a consultar la BD.
+     *
+     * Evalúa:
+     * - Que crear un curso en un módulo nuevo lo añada y cambie el ETag
+     * - Que eliminar el último curso de un módulo lo quite
+     * - Que mover un curso entre módulos con más cursos no cambie el ETag
+     */
+    @Test
+    @DisplayName("getModuleCatalog - Debe actualizarse de forma incremental con las escrituras")
+    void testGetModuleCatalog_AfterWrites_ShouldUpdateIncrementally() {
+        when(courseRepository.countCoursesByModule()).thenReturn(List.of(
+                new ModuleCountDTO("Backend", 2L),
+                new ModuleCountDTO("Frontend", 3L)));
+        ModuleCatalogDTO initial = coursesService.getModuleCatalog();
+
+        Course devOps = Course.builder().id(2L).title("Docker").module("DevOps").build();
+        when(courseRepository.save(any(Course.class))).thenReturn(devOps);
+        coursesService.createCourse(new CourseRequestDTO("Docker", null, "DevOps", null, null));
+        ModuleCatalogDTO afterCreate = coursesService.getModuleCatalog();
+
+        when(courseRepository.findById(2L)).thenReturn(Optional.of(devOps));
+        coursesService.deleteCourseById(2L);
+        ModuleCatalogDTO afterDelete = coursesService.getModuleCatalog();
+
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        when(courseRepository.save(testCourse)).thenReturn(testCourse);
+        coursesService.updateCourseById(1L, new CourseRequestDTO(null, null, "Frontend", null, null));
+        ModuleCatalogDTO afterMove = coursesService.getModuleCatalog();
+
+        assertThat(afterCreate.modules()).containsExactly("Backend", "DevOps", "Frontend");
+        assertThat(afterCreate.etag()).isNotEqualTo(initial.etag());
+        assertThat(afterDelete).isEqualTo(initial);
+        assertThat(afterMove.etag()).isEqualTo(initial.etag());
+        verify(courseRepository, times(1)).countCoursesByModule();
     }
 
     // ==================== PRUEBAS PARA listCourses() ====================
@@ -135,6 +215,7 @@ class CoursesServiceImplTest {
      * 
      * Evalúa:
      * - Que se use el método correcto del repositorio cuando hay filtro
+     * - Que el filtro se convierta en un patrón LIKE en minúsculas
      * - Que se construya el Pageable correctamente
      * - Que se mapeen las entidades a DTOs
      */
@@ -151,7 +232,7 @@ class CoursesServiceImplTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Course> coursePage = new PageImpl<>(List.of(testCourse), pageable, 1);
         
-        when(courseRepository.findByModuleContainingIgnoreCase(eq("Backend"), any(Pageable.class)))
+        when(courseRepository.findByModuleLike(eq("%backend%"), any(Pageable.class)))
                 .thenReturn(coursePage);
 
         
@@ -167,7 +248,7 @@ class CoursesServiceImplTest {
         assertThat(dto.title()).isEqualTo("Java Fundamentals");
         assertThat(dto.module()).isEqualTo("Backend");
         
-        verify(courseRepository).findByModuleContainingIgnoreCase(eq("Backend"), any(Pageable.class));
+        verify(courseRepository).findByModuleLike(eq("%backend%"), any(Pageable.class));
         verify(courseRepository, never()).findAll(any(Pageable.class));
     }
 
@@ -202,7 +283,7 @@ class CoursesServiceImplTest {
                 .hasSize(1);
         
         verify(courseRepository).findAll(any(Pageable.class));
-        verify(courseRepository, never()).findByModuleContainingIgnoreCase(anyString(), any(Pageable.class));
+        verify(courseRepository, never()).findByModuleLike(anyString(), any(Pageable.class));
     }
 
     /**
@@ -229,7 +310,69 @@ class CoursesServiceImplTest {
 
         
         verify(courseRepository).findAll(any(Pageable.class));
-        verify(courseRepository, never()).findByModuleContainingIgnoreCase(anyString(), any(Pageable.class));
+        verify(courseRepository, never()).findByModuleLike(anyString(), any(Pageable.class));
+    }
+
+    // ==================== PRUEBAS PARA listCoursesAfter() ====================
+
+    /**
+     * Test: Listado por keyset con página siguiente.
+     *
+     * Evalúa:
+     * - Que se pida un elemento extra para detectar la página siguiente
+     * - Que el cursor devuelto apunte al último elemento de la página
+     * - Que no se use la consulta paginada con count(*)
+     */
+    @Test
+    @DisplayName("listCoursesAfter - Debe devolver la página y el cursor siguiente")
+    void testListCoursesAfter_WithMoreRows_ShouldReturnNextCursor() {
+        Course second = Course.builder().id(2L).title("Spring").module("Backend")
+                .updatedAt(LocalDateTime.now()).build();
+        when(courseRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(testCourse, second));
+
+        CourseSliceDTO result = coursesService.listCoursesAfter(new CourseRequestKeysetDTO(null, "", null, 1));
+
+        assertThat(result.content()).extracting(CourseResponseDTO::id).containsExactly(1L);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(CourseCursor.decode(result.nextCursor()).id()).isEqualTo(1L);
+        verify(courseRepository, never()).findAll(any(Pageable.class));
+    }
+
+    /**
+     * Test: El cursor por (updatedAt, id) se respeta junto con el filtro de módulo.
+     */
+    @Test
+    @DisplayName("listCoursesAfter - Debe continuar desde el cursor por updatedAt con filtro de módulo")
+    void testListCoursesAfter_WithUpdatedAtCursorAndModule_ShouldSeek() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 10, 8, 30, 15, 123000);
+        String after = new CourseCursor(CourseCursor.Sort.UPDATED_AT, updatedAt, 7L).encode();
+        when(courseRepository.findByModuleLikeAfterUpdatedAt("%backend%", updatedAt, 7L, Limit.of(11)))
+                .thenReturn(List.of(testCourse));
+
+        CourseSliceDTO result = coursesService.listCoursesAfter(new CourseRequestKeysetDTO(" Backend ", after, null, 10));
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    /**
+     * Test: Un tamaño de página desmesurado se limita a MAX_SIZE.
+     *
+     * Evalúa:
+     * - Que Integer.MAX_VALUE no desborde al pedir el elemento extra
+     * - Que nunca se pidan más de MAX_SIZE + 1 filas
+     */
+    @Test
+    @DisplayName("listCoursesAfter - Debe limitar el tamaño de página")
+    void testListCoursesAfter_HugeSize_ShouldClampLimit() {
+        when(courseRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CourseRequestKeysetDTO.MAX_SIZE + 1)))
+                .thenReturn(List.of(testCourse));
+
+        CourseSliceDTO result = coursesService.listCoursesAfter(new CourseRequestKeysetDTO(null, "", null, Integer.MAX_VALUE));
+
+        assertThat(result.content()).hasSize(1);
     }
 
     // ==================== PRUEBAS PARA getCourseById() ====================
@@ -339,16 +482,16 @@ class CoursesServiceImplTest {
      * Test: Eliminar un curso existente.
      * 
      * Evalúa:
-     * - Verificación de existencia antes de eliminar
-     * - Llamada correcta a deleteById
+     * - Carga del curso antes de eliminar (se necesita su módulo para invalidar la cache)
+     * - Llamada correcta a delete
      * - Retorno de true indicando éxito
      */
     @Test
     @DisplayName("deleteCourseById - Debe eliminar el curso y devolver true cuando existe")
     void testDeleteCourseById_WhenCourseExists_ShouldDeleteAndReturnTrue() {
         // ARRANGE
-        when(courseRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(courseRepository).deleteById(1L);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        doNothing().when(courseRepository).delete(testCourse);
 
         
         boolean result = coursesService.deleteCourseById(1L);
@@ -356,8 +499,8 @@ class CoursesServiceImplTest {
         
         assertThat(result).isTrue();
         
-        verify(courseRepository, times(1)).existsById(1L);
-        verify(courseRepository, times(1)).deleteById(1L);
+        verify(courseRepository, times(1)).findById(1L);
+        verify(courseRepository, times(1)).delete(testCourse);
     }
 
     /**
@@ -371,7 +514,7 @@ class CoursesServiceImplTest {
     @DisplayName("deleteCourseById - Debe devolver false cuando el curso no existe")
     void testDeleteCourseById_WhenCourseNotFound_ShouldReturnFalse() {
         // ARRANGE
-        when(courseRepository.existsById(999L)).thenReturn(false);
+        when(courseRepository.findById(999L)).thenReturn(Optional.empty());
 
         
         boolean result = coursesService.deleteCourseById(999L);
@@ -379,8 +522,8 @@ class CoursesServiceImplTest {
         
         assertThat(result).isFalse();
         
-        verify(courseRepository, times(1)).existsById(999L);
-        verify(courseRepository, never()).deleteById(anyLong());
+        verify(courseRepository, times(1)).findById(999L);
+        verify(courseRepository, never()).delete(any(Course.class));
     }
 
     // ==================== PRUEBAS PARA updateCourseById() ====================
@@ -501,4 +644,269 @@ class CoursesServiceImplTest {
                 course.getUpdatedAt().isEqual(beforeUpdate)
         ));
     }
+
+    // ==================== PRUEBAS PARA LA CACHE DEL CATÁLOGO ====================
+
+    /**
+     * Test: Lecturas repetidas de un curso se sirven desde la cache.
+     *
+     * Evalúa:
+     * - Que el repositorio se consulte una sola vez
+     * - Que las métricas registren el acierto
+     */
+    @Test
+    @DisplayName("getCourseById - Debe servir lecturas repetidas desde la cache")
+    void testGetCourseById_CalledTwice_ShouldHitRepositoryOnce() {
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+
+        coursesService.getCourseById(1L);
+        CourseResponseDTO result = coursesService.getCourseById(1L);
+
+        assertThat(result.title()).isEqualTo("Java Fundamentals");
+        verify(courseRepository, times(1)).findById(1L);
+        assertThat(coursesService.getCacheStats().get("coursesById").hits()).isEqualTo(1);
+    }
+
+    /**
+     * Test: Actualizar un curso invalida su entrada y las páginas que lo contienen,
+     * pero no las páginas filtradas por otros módulos.
+     */
+    @Test
+    @DisplayName("updateCourseById - Debe invalidar solo las entradas de cache afectadas")
+    void testUpdateCourseById_ShouldEvictOnlyAffectedEntries() {
+        Page<Course> backendPage = new PageImpl<>(List.of(testCourse));
+        Page<Course> frontendPage = new PageImpl<>(Collections.emptyList());
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        when(courseRepository.findByModuleLike(eq("%backend%"), any(Pageable.class))).thenReturn(backendPage);
+        when(courseRepository.findByModuleLike(eq("%frontend%"), any(Pageable.class))).thenReturn(frontendPage);
+        when(courseRepository.save(any(Course.class))).thenReturn(testCourse);
+
+        coursesService.getCourseById(1L);
+        coursesService.listCourses(new CourseRequestPageableDTO("Backend", 0, 10));
+        coursesService.listCourses(new CourseRequestPageableDTO("Frontend", 0, 10));
+
+        coursesService.updateCourseById(1L, new CourseRequestDTO(null, "New description", null, null, null));
+
+        coursesService.getCourseById(1L);
+        coursesService.listCourses(new CourseRequestPageableDTO("Backend", 0, 10));
+        coursesService.listCourses(new CourseRequestPageableDTO("Frontend", 0, 10));
+
+        // getCourseById x2 + la lectura dentro de updateCourseById
+        verify(courseRepository, times(3)).findById(1L);
+        verify(courseRepository, times(2)).findByModuleLike(eq("%backend%"), any(Pageable.class));
+        verify(courseRepository, times(1)).findByModuleLike(eq("%frontend%"), any(Pageable.class));
+    }
+
+    /**
+     * Test: If-Match con una versión antigua.
+     *
+     * Evalúa:
+     * - Que se responda 412 sin guardar nada
+     */
+    @Test
+    @DisplayName("updateCourseById - Debe lanzar 412 si la versión esperada no es la actual")
+    void testUpdateCourseById_StaleVersion_ShouldThrowPreconditionFailed() {
+        testCourse.setVersion(4L);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+
+        assertThatThrownBy(() -> coursesService.updateCourseById(1L, testRequestDTO, 3L))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+        verify(courseRepository, never()).save(any());
+    }
+
+    /**
+     * Test: Conflicto optimista sin If-Match.
+     *
+     * Evalúa:
+     * - Que la actualización se reintente sobre la versión nueva
+     * - Que con If-Match el mismo conflicto no se reintente y sea un 412
+     */
+    @Test
+    @DisplayName("updateCourseById - Debe reintentar un conflicto optimista solo sin If-Match")
+    void testUpdateCourseById_OptimisticConflict_ShouldRetryWithoutIfMatch() {
+        testCourse.setVersion(3L);
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        when(courseRepository.save(any(Course.class))).thenReturn(testCourse);
+        doThrow(new ObjectOptimisticLockingFailureException(Course.class, 1L)).doNothing().when(courseRepository).flush();
+
+        CourseResponseDTO result = coursesService.updateCourseById(1L, testRequestDTO, null);
+
+        assertThat(result).isNotNull();
+        verify(courseRepository, times(2)).save(any(Course.class));
+
+        doThrow(new ObjectOptimisticLockingFailureException(Course.class, 1L)).when(courseRepository).flush();
+        assertThatThrownBy(() -> coursesService.updateCourseById(1L, testRequestDTO, 3L))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+        verify(courseRepository, times(3)).save(any(Course.class));
+    }
+
+    /**
+     * Test: Importación masiva en NDJSON.
+     *
+     * Evalúa:
+     * - Que los cursos se inserten en lotes del tamaño pedido
+     * - Que se notifique el progreso tras cada lote
+     * - Que las filas sin título se omitan
+     */
+    @Test
+    @DisplayName("importCourses - Debe insertar NDJSON por lotes y notificar el progreso")
+    void testImportCourses_Ndjson_ShouldInsertInBatches() {
+        String body = """
+                {"title":"A","module":"Backend"}
+                {"title":"B","module":"Backend"}
+                {"title":"","module":"Backend"}
+                {"title":"C","module":"Frontend"}
+                """;
+        when(courseBatchRepository.insertBatch(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        List<CourseImportProgressDTO> progress = new ArrayList<>();
+
+        CourseImportResultDTO result = coursesService.importCourses(stream(body), 2, progress::add);
+
+        assertThat(result.completed()).isTrue();
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.batches()).isEqualTo(2);
+        assertThat(progress).extracting(CourseImportProgressDTO::imported).containsExactly(2L, 3L);
+        verify(courseBatchRepository, times(2)).insertBatch(anyList());
+    }
+
+    /**
+     * Test: Importación masiva de un array JSON.
+     *
+     * Evalúa:
+     * - Que un array se lea elemento a elemento igual que NDJSON
+     * - Que el catálogo de módulos se recargue tras la importación
+     */
+    @Test
+    @DisplayName("importCourses - Debe aceptar un array JSON e invalidar el catálogo")
+    void testImportCourses_JsonArray_ShouldInvalidateCatalog() {
+        when(courseRepository.countCoursesByModule())
+                .thenReturn(List.of(new ModuleCountDTO("Backend", 1L)))
+                .thenReturn(List.of(new ModuleCountDTO("Backend", 1L), new ModuleCountDTO("Data", 2L)));
+        assertThat(coursesService.getAvailableModules()).containsExactly("Backend");
+        when(courseBatchRepository.insertBatch(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        CourseImportResultDTO result = coursesService.importCourses(
+                stream("[{\"title\":\"X\",\"module\":\"Data\"},{\"title\":\"Y\",\"module\":\"Data\"}]"),
+                null, p -> { });
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.batches()).isEqualTo(1);
+        assertThat(coursesService.getAvailableModules()).containsExactly("Backend", "Data");
+    }
+
+    /**
+     * Test: Un cuerpo malformado corta la importación.
+     *
+     * Evalúa:
+     * - Que los lotes confirmados antes del error se reporten
+     * - Que el resultado indique el error en lugar de lanzar la excepción
+     */
+    @Test
+    @DisplayName("importCourses - Debe reportar el error sin perder los lotes ya confirmados")
+    void testImportCourses_MalformedBody_ShouldReportError() {
+        when(courseBatchRepository.insertBatch(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        CourseImportResultDTO result = coursesService.importCourses(
+                stream("{\"title\":\"A\"}\n{\"title\":\"B\"}\n{\"title\":"), 1, p -> { });
+
+        assertThat(result.completed()).isFalse();
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.error()).isNotBlank();
+    }
+
+    /**
+     * Test: Exportación en NDJSON reanudada tras un id.
+     *
+     * Evalúa:
+     * - Que la consulta arranque tras el id indicado
+     * - Que se escriba una línea JSON por curso
+     */
+    @Test
+    @DisplayName("exportCourses - Debe escribir una línea NDJSON por curso a partir del id indicado")
+    void testExportCourses_Ndjson_ShouldWriteOneLinePerCourse() throws Exception {
+        when(courseBatchRepository.streamAfter(eq(10L), any())).thenAnswer(inv -> {
+            Consumer<CourseResponseDTO> consumer = inv.getArgument(1);
+            consumer.accept(CoursesServiceImpl.toDto(testCourse));
+            consumer.accept(CoursesServiceImpl.toDto(testCourse));
+            return 2L;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = coursesService.exportCourses(10L, CourseExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains("\"title\":\"Java Fundamentals\"");
+    }
+
+    /**
+     * Test: Exportación en CSV.
+     *
+     * Evalúa:
+     * - Que se escriba la cabecera
+     * - Que los campos con comas o comillas se escapen
+     */
+    @Test
+    @DisplayName("exportCourses - Debe escribir CSV con cabecera y campos escapados")
+    void testExportCourses_Csv_ShouldEscapeFields() throws Exception {
+        testCourse.setDescription("Java, \"the\" basics");
+        when(courseBatchRepository.streamAfter(eq(0L), any())).thenAnswer(inv -> {
+            Consumer<CourseResponseDTO> consumer = inv.getArgument(1);
+            consumer.accept(CoursesServiceImpl.toDto(testCourse));
+            return 1L;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        coursesService.exportCourses(null, CourseExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo("id,title,description,module,durationHours,badgeImage,createdAt,updatedAt");
+        assertThat(lines[1]).startsWith("1,Java Fundamentals,\"Java, \"\"the\"\" basics\",Backend,40,");
+    }
+
+    /**
+     * Test: Fecha de modificación para peticiones condicionales.
+     *
+     * Evalúa:
+     * - Que con el curso en cache no se consulte la base de datos
+     * - Que sin cache solo se lea updated_at, nunca la entidad completa
+     */
+    @Test
+    @DisplayName("getCourseVersion - Debe resolverse desde la cache o leyendo solo versión y updatedAt")
+    void testGetCourseVersion_ShouldNotLoadEntity() {
+        testCourse.setVersion(5L);
+        CourseVersionDTO stored = new CourseVersionDTO(2L, testCourse.getUpdatedAt());
+        when(courseRepository.findVersionById(2L)).thenReturn(Optional.of(stored));
+        when(courseRepository.findById(1L)).thenReturn(Optional.of(testCourse));
+        coursesService.getCourseById(1L);
+
+        assertThat(coursesService.getCourseVersion(1L)).contains(new CourseVersionDTO(5L, testCourse.getUpdatedAt()));
+        assertThat(coursesService.getCourseVersion(2L)).contains(stored);
+
+        verify(courseRepository, times(1)).findById(1L);
+        verify(courseRepository, never()).findById(2L);
+        verify(courseRepository, never()).findVersionById(1L);
+    }
+
+    /**
+     * Test: La versión del catálogo cambia con cada escritura.
+     */
+    @Test
+    @DisplayName("getCatalogETag - Debe cambiar al crear un curso")
+    void testGetCatalogETag_ShouldChangeAfterWrite() {
+        when(courseRepository.save(any(Course.class))).thenReturn(testCourse);
+        String before = coursesService.getCatalogETag();
+
+        coursesService.createCourse(testRequestDTO);
+
+        assertThat(coursesService.getCatalogETag()).isNotEqualTo(before);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,113 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.cache.UserActivityCache;
+import org.manudev.auth_catalog_kata.dto.CourseRequestPageableDTO;
+import org.manudev.auth_catalog_kata.dto.CourseResponseDTO;
+import org.manudev.auth_catalog_kata.dto.DashboardDTO;
+import org.manudev.auth_catalog_kata.dto.UserActivityView;
+import org.manudev.auth_catalog_kata.repository.IUserProgressRepository;
+import org.manudev.auth_catalog_kata.services.interfaces.ICoursesService;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para DashboardServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardServiceImpl - Pruebas Unitarias")
+class DashboardServiceImplTest {
+
+    @Mock
+    private ICoursesService coursesService;
+
+    @Mock
+    private IUserProgressRepository userProgressRepository;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardServiceImpl(coursesService, userProgressRepository,
+                new UserActivityCache(100, Duration.ofSeconds(10)), executor);
+        Page<CourseResponseDTO> page = new PageImpl<>(List.of(
+                new CourseResponseDTO(7L, "Java Fundamentals", null, "Backend", "40", null, null, null, 0L)));
+        when(coursesService.listCourses(any())).thenReturn(page);
+        when(coursesService.getAvailableModules()).thenReturn(List.of("Backend"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test: El dashboard reúne todas las lecturas.
+     *
+     * Evalúa:
+     * - Que incluya página, módulos, progreso e insignias
+     * - Que la actividad del usuario sea una única consulta
+     */
+    @Test
+    @DisplayName("getDashboard - Debe devolver cursos, módulos, progreso e insignias juntos")
+    void testGetDashboard_ShouldAggregateEverything() {
+        when(userProgressRepository.findActivityByUserId(1L))
+                .thenReturn(List.of(row(7L, "completed", 2L), row(8L, "started", 2L)));
+
+        DashboardDTO dashboard = dashboardService.getDashboard(1L, new CourseRequestPageableDTO(null, 0, 20));
+
+        assertThat(dashboard.courses().getContent()).extracting(CourseResponseDTO::id).containsExactly(7L);
+        assertThat(dashboard.modules()).containsExactly("Backend");
+        assertThat(dashboard.progress()).extracting(p -> p.status()).containsExactly("completed", "started");
+        assertThat(dashboard.badgeCount()).isEqualTo(2);
+        verify(userProgressRepository, times(1)).findActivityByUserId(1L);
+    }
+
+    /**
+     * Test: Usuario sin progreso.
+     *
+     * Evalúa:
+     * - Que la fila sin curso solo aporte el número de insignias
+     * - Que una segunda carga del dashboard salga de la cache por usuario
+     */
+    @Test
+    @DisplayName("getDashboard - Debe cachear la actividad del usuario entre cargas")
+    void testGetDashboard_NoProgress_ShouldCacheActivity() {
+        when(userProgressRepository.findActivityByUserId(1L)).thenReturn(List.of(row(null, null, 0L)));
+
+        dashboardService.getDashboard(1L, new CourseRequestPageableDTO(null, 0, 20));
+        DashboardDTO second = dashboardService.getDashboard(1L, new CourseRequestPageableDTO(null, 0, 20));
+
+        assertThat(second.progress()).isEmpty();
+        assertThat(second.badgeCount()).isZero();
+        verify(userProgressRepository, times(1)).findActivityByUserId(1L);
+    }
+
+    private static UserActivityView row(Long courseId, String status, Long badgeCount) {
+        return new UserActivityView() {
+            public Long getBadgeCount() { return badgeCount; }
+            public Long getCourseId() { return courseId; }
+            public String getCourseTitle() { return courseId == null ? null : "Course " + courseId; }
+            public String getStatus() { return status; }
+            public LocalDateTime getStartedAt() { return null; }
+            public LocalDateTime getCompletedAt() { return null; }
+        };
+    }
+}
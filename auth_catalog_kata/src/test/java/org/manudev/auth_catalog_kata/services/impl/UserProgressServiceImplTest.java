@@ -0,0 +1,162 @@
+package org.manudev.auth_catalog_kata.services.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.manudev.auth_catalog_kata.analytics.CourseAnalytics;
+import org.manudev.auth_catalog_kata.cache.UserActivityCache;
+import org.manudev.auth_catalog_kata.dto.BadgeAwardEvent;
+import org.manudev.auth_catalog_kata.dto.CourseCompletionDTO;
+import org.manudev.auth_catalog_kata.dto.CourseCompletionView;
+import org.manudev.auth_catalog_kata.dto.StartedProgressView;
+import org.manudev.auth_catalog_kata.dto.UserProgressDTO;
+import org.manudev.auth_catalog_kata.events.BadgeAwardPipeline;
+import org.manudev.auth_catalog_kata.repository.IUserProgressRepository;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para UserProgressServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserProgressServiceImpl - Pruebas Unitarias")
+class UserProgressServiceImplTest {
+
+    @Mock
+    private IUserProgressRepository userProgressRepository;
+
+    @Mock
+    private BadgeAwardPipeline badgeAwardPipeline;
+
+    @Mock
+    private CourseAnalytics courseAnalytics;
+
+    private UserProgressServiceImpl userProgressService;
+
+    @BeforeEach
+    void setUp() {
+        userProgressService = new UserProgressServiceImpl(userProgressRepository, badgeAwardPipeline,
+                new UserActivityCache(100, Duration.ofSeconds(10)), courseAnalytics);
+    }
+
+    /**
+     * Test: Completar un curso por primera vez.
+     *
+     * Evalúa:
+     * - Que se ejecute un único upsert
+     * - Que se marque como recién completado cuando el upsert escribió en el outbox
+     * - Que el evento de insignia se encole en lugar de escribirse en la petición
+     * - Que la analítica registre el completado con su duración
+     */
+    @Test
+    @DisplayName("completeCourse - Debe marcar como recién completado y encolar la insignia")
+    void testCompleteCourse_FirstTime_ShouldBeNewlyCompleted() {
+        when(userProgressRepository.upsertCompleted(eq(1L), eq(7L), any()))
+                .thenAnswer(inv -> completion(7L, inv.getArgument(2), 42L));
+
+        CourseCompletionDTO result = userProgressService.completeCourse(1L, 7L);
+
+        assertThat(result.newlyCompleted()).isTrue();
+        assertThat(result.progress().status()).isEqualTo("completed");
+        verify(userProgressRepository, times(1)).upsertCompleted(eq(1L), eq(7L), any());
+        verifyNoMoreInteractions(userProgressRepository);
+        verify(badgeAwardPipeline).submit(new BadgeAwardEvent(42L, 1L, 7L, "Java Fundamentals"));
+        verify(courseAnalytics).courseCompleted(eq(1L), eq(7L), eq(false),
+                eq(LocalDateTime.of(2024, 1, 1, 9, 0)), eq(result.progress().completedAt()));
+    }
+
+    /**
+     * Test: Completar un curso ya completado es idempotente.
+     *
+     * Evalúa:
+     * - Que no se lance error
+     * - Que no se marque como recién completado ni se encole otra insignia
+     */
+    @Test
+    @DisplayName("completeCourse - Debe ser idempotente si el curso ya estaba completado")
+    void testCompleteCourse_AlreadyCompleted_ShouldNotBeNewlyCompleted() {
+        LocalDateTime previous = LocalDateTime.of(2024, 1, 1, 10, 0);
+        when(userProgressRepository.upsertCompleted(eq(1L), eq(7L), any()))
+                .thenReturn(completion(7L, previous, null));
+
+        CourseCompletionDTO result = userProgressService.completeCourse(1L, 7L);
+
+        assertThat(result.newlyCompleted()).isFalse();
+        assertThat(result.progress().completedAt()).isEqualTo(previous);
+        verifyNoInteractions(badgeAwardPipeline, courseAnalytics);
+    }
+
+    /**
+     * Test: Empezar un curso inexistente.
+     *
+     * Evalúa:
+     * - Que la violación de la clave foránea se traduzca en un 404
+     */
+    @Test
+    @DisplayName("startCourse - Debe lanzar 404 si el curso no existe")
+    void testStartCourse_UnknownCourse_ShouldThrowNotFound() {
+        when(userProgressRepository.upsertStarted(eq(1L), eq(99L), any()))
+                .thenThrow(new DataIntegrityViolationException("fk_course"));
+
+        assertThatThrownBy(() -> userProgressService.startCourse(1L, 99L))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Test: Empezar un curso devuelve el progreso de la fila.
+     *
+     * Evalúa:
+     * - Que se devuelva el progreso del upsert
+     * - Que la analítica sepa si la fila es nueva
+     */
+    @Test
+    @DisplayName("startCourse - Debe devolver el progreso del upsert")
+    void testStartCourse_ShouldReturnProgress() {
+        when(userProgressRepository.upsertStarted(eq(1L), eq(7L), any()))
+                .thenReturn(view(7L, "started", null));
+
+        UserProgressDTO result = userProgressService.startCourse(1L, 7L);
+
+        assertThat(result.courseId()).isEqualTo(7L);
+        assertThat(result.courseTitle()).isEqualTo("Java Fundamentals");
+        assertThat(result.status()).isEqualTo("started");
+        verify(courseAnalytics).courseStarted(eq(1L), eq(7L), eq(true), any());
+    }
+
+    private static CourseCompletionView completion(Long courseId, LocalDateTime completedAt, Long outboxId) {
+        return new CourseCompletionView() {
+            public Long getCourseId() { return courseId; }
+            public String getCourseTitle() { return "Java Fundamentals"; }
+            public String getStatus() { return "completed"; }
+            public LocalDateTime getStartedAt() { return LocalDateTime.of(2024, 1, 1, 9, 0); }
+            public LocalDateTime getCompletedAt() { return completedAt; }
+            public Long getOutboxId() { return outboxId; }
+            public Boolean getCreated() { return false; }
+        };
+    }
+
+    private static StartedProgressView view(Long courseId, String status, LocalDateTime completedAt) {
+        return new StartedProgressView() {
+            public Long getCourseId() { return courseId; }
+            public String getCourseTitle() { return "Java Fundamentals"; }
+            public String getStatus() { return status; }
+            public LocalDateTime getStartedAt() { return LocalDateTime.of(2024, 1, 1, 9, 0); }
+            public LocalDateTime getCompletedAt() { return completedAt; }
+            public Boolean getCreated() { return true; }
+        };
+    }
+}
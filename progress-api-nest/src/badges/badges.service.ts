@@ -39,7 +39,7 @@ export class BadgesService {
     try {
       const query = await this.badgeRepository
         .createQueryBuilder('bd')
-        .leftJoin('users', 'usu', 'CAST(bd.code AS BIGINT) = usu.id')
+        .leftJoin('users', 'usu', "CAST(split_part(bd.code, ':', 1) AS BIGINT) = usu.id")
         .select([
           'bd.code AS code',
           'bd.title AS title',
@@ -79,7 +79,7 @@ describe('UserProgressService', () => {
       );
       expect(badgeService.create).toHaveBeenCalledWith(
         expect.objectContaining({
-          code: '1',
+          code: '1:1',
           title: expect.stringContaining('NestJS 101'),
         }),
       );
@@ -138,7 +138,8 @@ export class UserProgressService {
       userProgress.updatedAt = new Date().toISOString();
 
       const badge = {
-        code: String(userProgress.user.id),
+        // Mismo formato que el pipeline de insignias de Java (usuario:curso)
+        code: `${userProgress.user.id}:${userProgress.course.id}`,
         title: `Completed ${userProgress.course.title}`,
         description: `user ${userProgress.user.name} has completed the course`,
         image_url: 'https://cdn-icons-png.flaticon.com/512/1534/1534225.png',